@@ -0,0 +1,156 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadPoolExecutor;
+import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperAttachmentContent;
+import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperAttachmentContentRepository;
+import lk.gov.mohe.adminsystem.letter.LetterAttachmentContent;
+import lk.gov.mohe.adminsystem.letter.LetterAttachmentContentRepository;
+import lk.gov.mohe.adminsystem.storage.MinioStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Extracts the text of newly saved attachments into the *_attachment_contents tables used by
+ * full-text search. Runs after the upload transaction commits, on a bounded pool; when the queue is
+ * full the attachment is left unindexed rather than holding up the request, and a periodic sweep
+ * queues recent attachments that still have no text once there is room.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttachmentContentIndexer {
+  private final AttachmentRepository attachmentRepository;
+  private final LetterAttachmentContentRepository letterAttachmentContentRepository;
+  private final CabinetPaperAttachmentContentRepository cabinetPaperAttachmentContentRepository;
+  private final MinioStorageService storageService;
+  private final AttachmentTextExtractor textExtractor;
+
+  @Value("${custom.attachments.extraction.threads}")
+  private int threads;
+
+  @Value("${custom.attachments.extraction.queue-capacity}")
+  private int queueCapacity;
+
+  @Value("${custom.attachments.extraction.sweep-interval}")
+  private Duration sweepInterval;
+
+  @Value("${custom.attachments.extraction.sweep-lookback}")
+  private Duration sweepLookback;
+
+  private ThreadPoolTaskExecutor executor;
+
+  @PostConstruct
+  void startExecutor() {
+    executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("attachment-text-");
+    executor.setRejectedExecutionHandler(AttachmentContentIndexer::leaveForSweep);
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    executor.initialize();
+  }
+
+  @PreDestroy
+  void stopExecutor() {
+    executor.shutdown();
+  }
+
+  private static void leaveForSweep(Runnable task, ThreadPoolExecutor pool) {
+    log.debug("Text extraction queue is full, leaving the attachment for the next sweep");
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onAttachmentsSaved(AttachmentsSavedEvent event) {
+    event.attachmentIds().forEach(id -> executor.execute(() -> index(id)));
+  }
+
+  /**
+   * Queues recent attachments that have no text yet, such as those skipped while the queue was
+   * full, up to the free space in the queue. Attachments newer than one interval are left to the
+   * tasks that may still be queued for them.
+   */
+  @Scheduled(fixedDelayString = "${custom.attachments.extraction.sweep-interval}")
+  public void indexSkippedAttachments() {
+    try {
+      int free = executor.getThreadPoolExecutor().getQueue().remainingCapacity();
+      if (free == 0) {
+        return;
+      }
+      Instant now = Instant.now();
+      List<Integer> ids =
+          attachmentRepository.findUnindexedIds(
+              AttachmentTextExtractor.SUPPORTED_TYPES,
+              now.minus(sweepLookback),
+              now.minus(sweepInterval),
+              free);
+      ids.forEach(id -> executor.execute(() -> index(id)));
+      if (!ids.isEmpty()) {
+        log.info("Queued text extraction for {} unindexed attachments", ids.size());
+      }
+    } catch (Exception e) {
+      log.error("Error while sweeping unindexed attachments", e);
+    }
+  }
+
+  void index(Integer attachmentId) {
+    Optional<Attachment> found = attachmentRepository.findById(attachmentId);
+    if (found.isEmpty()
+        || !textExtractor.supports(found.get().getFileType())
+        || isIndexed(found.get())) {
+      return;
+    }
+    Attachment attachment = found.get();
+
+    Optional<String> text;
+    try (InputStream in = storageService.download(attachment.getFilePath())) {
+      text = textExtractor.extract(attachment.getFileType(), in);
+    } catch (Exception e) {
+      log.warn("Failed to extract text from attachment [{}]", attachmentId, e);
+      return;
+    }
+
+    // A file without text still gets a row so the sweep doesn't extract it again
+    saveContent(attachment, text.orElse(""));
+  }
+
+  private boolean isIndexed(Attachment attachment) {
+    return switch (attachment.getParentType()) {
+      case LETTER, LETTER_EVENT -> letterAttachmentContentRepository.existsById(attachment.getId());
+      case CABINET_PAPER ->
+          cabinetPaperAttachmentContentRepository.existsById(attachment.getId());
+    };
+  }
+
+  private void saveContent(Attachment attachment, String text) {
+    switch (attachment.getParentType()) {
+      case LETTER, LETTER_EVENT -> {
+        LetterAttachmentContent content = new LetterAttachmentContent();
+        content.setAttachment(attachment);
+        content.setText(text);
+        letterAttachmentContentRepository.save(content);
+      }
+      case CABINET_PAPER -> {
+        CabinetPaperAttachmentContent content = new CabinetPaperAttachmentContent();
+        content.setAttachment(attachment);
+        content.setText(text);
+        cabinetPaperAttachmentContentRepository.save(content);
+      }
+    }
+    log.debug("Indexed {} characters of attachment [{}]", text.length(), attachment.getId());
+  }
+}
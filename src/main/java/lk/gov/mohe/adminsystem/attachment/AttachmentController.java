@@ -0,0 +1,149 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import lk.gov.mohe.adminsystem.storage.StoredObject;
+import lk.gov.mohe.adminsystem.util.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+@RestController
+@RequiredArgsConstructor
+public class AttachmentController {
+  private final AttachmentService attachmentService;
+  private final AttachmentDownloads attachmentDownloads;
+
+  /**
+   * Streams an attachment through the API for clients that cannot reach MinIO. Supports a single
+   * byte range, and answers 304 when the client's ETag is still current.
+   */
+  @GetMapping("/attachments/{id}/content")
+  @PreAuthorize(
+      "hasAnyAuthority('letter:all:read', 'letter:unassigned:read', 'letter:division:read',"
+          + " 'letter:own:manage', 'cabinet:read')")
+  public ResponseEntity<ResponseBodyEmitter> getAttachmentContent(
+      @PathVariable Integer id,
+      @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+      WebRequest webRequest,
+      Authentication authentication) {
+    Jwt jwt = (Jwt) authentication.getPrincipal();
+    Collection<String> authorities =
+        authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+
+    AttachmentService.ReadableAttachment readable =
+        attachmentService.getReadableAttachment(
+            id, jwt.getClaim("userId"), jwt.getClaim("divisionId"), authorities);
+    Attachment attachment = readable.attachment();
+    StoredObject object = readable.object();
+    String etag = "\"" + object.etag() + "\"";
+
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+
+    long size = object.size();
+    long start = 0;
+    long length = size;
+    HttpStatus status = HttpStatus.OK;
+    HttpHeaders headers = new HttpHeaders();
+
+    // A malformed Range header is ignored and multiple ranges are answered with the whole
+    // object, both as RFC 9110 permits
+    List<HttpRange> ranges = parseRanges(rangeHeader);
+    if (ranges.size() == 1) {
+      HttpRange range = ranges.get(0);
+      start = range.getRangeStart(size);
+      if (start >= size) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+            .build();
+      }
+      length = range.getRangeEnd(size) - start + 1;
+      status = HttpStatus.PARTIAL_CONTENT;
+      headers.set(
+          HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + length - 1) + "/" + size);
+    }
+
+    headers.setETag(etag);
+    headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+    headers.setCacheControl(CacheControl.noCache().cachePrivate());
+    headers.setContentLength(length);
+    MediaType contentType = contentType(attachment, object);
+    headers.setContentType(contentType);
+    if (attachment.getFileName() != null) {
+      headers.setContentDisposition(
+          ContentDisposition.inline()
+              .filename(attachment.getFileName(), StandardCharsets.UTF_8)
+              .build());
+    }
+
+    return ResponseEntity.status(status)
+        .headers(headers)
+        .body(attachmentDownloads.stream(attachment.getFilePath(), start, length, contentType));
+  }
+
+  /** Reserves a slot the client uploads to directly with a presigned PUT. */
+  @PostMapping("/attachments/upload-sessions")
+  @PreAuthorize(
+      "hasAnyAuthority('letter:all:add:attachments', 'letter:unassigned:add:attachments',"
+          + " 'letter:division:add:attachments', 'letter:own:manage', 'cabinet:update')")
+  public ResponseEntity<ApiResponse<UploadSessionDto>> createUploadSession(
+      @RequestBody @Valid CreateUploadSessionRequestDto request) {
+    UploadSessionDto session = attachmentService.createUploadSession(request);
+    return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.of(session));
+  }
+
+  /** Attaches directly uploaded files to a letter, letter event or cabinet paper. */
+  @PostMapping("/attachments/upload-sessions/finalize")
+  @PreAuthorize(
+      "hasAnyAuthority('letter:all:add:attachments', 'letter:unassigned:add:attachments',"
+          + " 'letter:division:add:attachments', 'letter:own:manage', 'cabinet:update')")
+  public ApiResponse<List<Integer>> finalizeUploads(
+      @RequestBody @Valid FinalizeUploadsRequestDto request, Authentication authentication) {
+    Jwt jwt = (Jwt) authentication.getPrincipal();
+    Collection<String> authorities =
+        authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+
+    List<Integer> attachmentIds =
+        attachmentService.finalizeUploads(
+            request, jwt.getClaim("userId"), jwt.getClaim("divisionId"), authorities);
+    return ApiResponse.of(attachmentIds);
+  }
+
+  private List<HttpRange> parseRanges(String rangeHeader) {
+    try {
+      return HttpRange.parseRanges(rangeHeader);
+    } catch (IllegalArgumentException e) {
+      return List.of();
+    }
+  }
+
+  private MediaType contentType(Attachment attachment, StoredObject object) {
+    String type = attachment.getFileType() != null ? attachment.getFileType() : object.contentType();
+    try {
+      return type != null ? MediaType.parseMediaType(type) : MediaType.APPLICATION_OCTET_STREAM;
+    } catch (IllegalArgumentException e) {
+      return MediaType.APPLICATION_OCTET_STREAM;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import lk.gov.mohe.adminsystem.storage.MinioStorageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/**
+ * Writes attachment downloads on virtual threads. A download mostly waits on MinIO or on a slow
+ * client, so on Spring MVC's async pool a few slow range requests would queue every other async
+ * request behind them. Only downloads use this executor and timeout; other async requests keep the
+ * MVC defaults.
+ */
+@Component
+public class AttachmentDownloads {
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  private final MinioStorageService storageService;
+  private final SimpleAsyncTaskExecutor executor;
+  private final Duration timeout;
+
+  public AttachmentDownloads(
+      MinioStorageService storageService,
+      @Value("${custom.attachments.download.max-concurrent}") int maxConcurrent,
+      @Value("${custom.attachments.download.timeout}") Duration timeout) {
+    this.storageService = storageService;
+    this.timeout = timeout;
+    executor = new SimpleAsyncTaskExecutor("attachment-download-");
+    executor.setVirtualThreads(true);
+    // Each download holds a MinIO connection; past the limit new downloads wait to start
+    executor.setConcurrencyLimit(maxConcurrent);
+  }
+
+  /** Streams {@code count} bytes of the object from {@code offset} as the response body. */
+  public ResponseBodyEmitter stream(
+      String objectName, long offset, long count, MediaType contentType) {
+    ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout.toMillis());
+    executor.execute(() -> copy(emitter, objectName, offset, count, contentType));
+    return emitter;
+  }
+
+  private void copy(
+      ResponseBodyEmitter emitter,
+      String objectName,
+      long offset,
+      long count,
+      MediaType contentType) {
+    if (count == 0) {
+      emitter.complete();
+      return;
+    }
+    try (InputStream in = storageService.download(objectName, offset, count)) {
+      byte[] buffer = new byte[CHUNK_SIZE];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        // Chunks sent before the response is set up are held by the emitter, so each needs its
+        // own array
+        emitter.send(Arrays.copyOf(buffer, read), contentType);
+      }
+      emitter.complete();
+    } catch (Exception e) {
+      emitter.completeWithError(e);
+    }
+  }
+}
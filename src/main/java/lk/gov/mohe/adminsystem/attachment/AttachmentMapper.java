@@ -1,18 +1,18 @@
 package lk.gov.mohe.adminsystem.attachment;
 
 import java.util.List;
-import lk.gov.mohe.adminsystem.storage.MinioStorageService;
+import lk.gov.mohe.adminsystem.storage.PresignedUrlCache;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.springframework.beans.factory.annotation.Autowired;
 
 @Mapper(componentModel = "spring")
 public abstract class AttachmentMapper {
-  @Autowired MinioStorageService minioStorageService;
+  @Autowired PresignedUrlCache presignedUrlCache;
 
   @Mapping(
       target = "url",
-      expression = "java( minioStorageService.getFileUrl(attachment.getFilePath()) )")
+      expression = "java( presignedUrlCache.getFileUrl(attachment.getFilePath()) )")
   public abstract AttachmentDto toDto(Attachment attachment);
 
   public abstract List<AttachmentDto> toDtoList(List<Attachment> attachments);
@@ -1,13 +1,43 @@
 package lk.gov.mohe.adminsystem.attachment;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface AttachmentRepository extends JpaRepository<Attachment, Integer> {
   long countByParentIdAndParentType(Integer parentId, ParentTypeEnum parentType);
 
+  @Query(
+      "SELECT a.parentId, COUNT(a) FROM Attachment a "
+          + "WHERE a.parentType = :parentType AND a.parentId IN :parentIds GROUP BY a.parentId")
+  List<Object[]> countByParentTypeAndParentIdIn(
+      @Param("parentType") ParentTypeEnum parentType,
+      @Param("parentIds") Collection<Integer> parentIds);
+
   List<Attachment> findByParentTypeAndParentId(ParentTypeEnum parentType, Integer parentId);
 
   List<Attachment> findByParentTypeAndParentIdIn(
       ParentTypeEnum parentTypeEnum, List<Integer> parentIds);
+
+  /** Ids of attachments of the given types created in the window that have no extracted text. */
+  @Query(
+      value =
+          """
+          SELECT a.id FROM attachments a
+          WHERE a.file_type IN (:fileTypes) AND a.created_at >= :since AND a.created_at < :before
+            AND NOT EXISTS (
+              SELECT 1 FROM letter_attachment_contents c WHERE c.attachment_id = a.id)
+            AND NOT EXISTS (
+              SELECT 1 FROM cabinet_paper_attachment_contents c WHERE c.attachment_id = a.id)
+          ORDER BY a.created_at LIMIT :limit
+          """,
+      nativeQuery = true)
+  List<Integer> findUnindexedIds(
+      @Param("fileTypes") Collection<String> fileTypes,
+      @Param("since") Instant since,
+      @Param("before") Instant before,
+      @Param("limit") int limit);
 }
@@ -0,0 +1,206 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperService;
+import lk.gov.mohe.adminsystem.letter.LetterService;
+import lk.gov.mohe.adminsystem.security.CurrentUserProvider;
+import lk.gov.mohe.adminsystem.storage.ContentDigest;
+import lk.gov.mohe.adminsystem.storage.MinioStorageService;
+import lk.gov.mohe.adminsystem.storage.StoredObject;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+@Service
+@RequiredArgsConstructor
+public class AttachmentService {
+  private static final String UPLOAD_FOLDER = "uploads";
+  private static final int EXPIRED_SESSION_BATCH_SIZE = 500;
+
+  private final AttachmentRepository attachmentRepository;
+  private final UploadSessionRepository uploadSessionRepository;
+  private final LetterService letterService;
+  private final CabinetPaperService cabinetPaperService;
+  private final MinioStorageService storageService;
+  private final CurrentUserProvider currentUserProvider;
+
+  @Value("${custom.attachments.accepted-mime-types}")
+  private Set<String> acceptedMimeTypes;
+
+  @Value("${custom.attachments.direct-upload.max-file-size}")
+  private DataSize maxDirectUploadSize;
+
+  @Value("${custom.attachments.direct-upload.url-validity-seconds}")
+  private int uploadUrlValiditySeconds;
+
+  @Value("${custom.attachments.direct-upload.session-ttl-seconds}")
+  private int uploadSessionTtlSeconds;
+
+  public record ReadableAttachment(Attachment attachment, StoredObject object) {}
+
+  /** Loads an attachment and its stored object, provided the caller may read its parent. */
+  @Transactional(readOnly = true)
+  public ReadableAttachment getReadableAttachment(
+      Integer id, Integer userId, Integer divisionId, Collection<String> authorities) {
+    Attachment attachment =
+        attachmentRepository
+            .findById(id)
+            .orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment not found"));
+
+    switch (attachment.getParentType()) {
+      case LETTER ->
+          letterService.checkLetterReadable(
+              attachment.getParentId(), userId, divisionId, authorities);
+      case LETTER_EVENT ->
+          letterService.checkLetterEventReadable(
+              attachment.getParentId(), userId, divisionId, authorities);
+      case CABINET_PAPER -> {
+        if (!authorities.contains("cabinet:read")) {
+          throw new ResponseStatusException(
+              HttpStatus.FORBIDDEN, "You do not have permission to access this attachment");
+        }
+      }
+    }
+
+    return new ReadableAttachment(attachment, storageService.stat(attachment.getFilePath()));
+  }
+
+  /**
+   * Reserves an object name and presigns a PUT for it, so the file goes straight to storage
+   * instead of through the multipart parser on this node.
+   */
+  @Transactional
+  public UploadSessionDto createUploadSession(CreateUploadSessionRequestDto request) {
+    if (!acceptedMimeTypes.contains(request.contentType())) {
+      throw new ResponseStatusException(
+          HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+          "Attachment type " + request.contentType() + " is not supported");
+    }
+    if (request.fileSize() > maxDirectUploadSize.toBytes()) {
+      throw new ResponseStatusException(
+          HttpStatus.PAYLOAD_TOO_LARGE,
+          "Attachments may not be larger than " + maxDirectUploadSize.toMegabytes() + " MB");
+    }
+
+    UploadSession session = new UploadSession();
+    session.setId(UUID.randomUUID());
+    session.setUser(currentUserProvider.getCurrentUserReference());
+    session.setObjectName(storageService.buildObjectName(UPLOAD_FOLDER, request.fileName()));
+    session.setFileName(request.fileName());
+    session.setContentType(request.contentType());
+    session.setFileSize(request.fileSize());
+    session.setExpiresAt(Instant.now().plusSeconds(uploadSessionTtlSeconds));
+    uploadSessionRepository.save(session);
+
+    String uploadUrl =
+        storageService.getUploadUrl(session.getObjectName(), uploadUrlValiditySeconds);
+    return new UploadSessionDto(session.getId(), uploadUrl, session.getExpiresAt());
+  }
+
+  /**
+   * Checks that each uploaded object has the declared size and type, then attaches them to the
+   * parent. The parent's service enforces the same permissions as a multipart upload would.
+   *
+   * <p>The presigned URL stays valid after the upload, so the checked objects are copied to
+   * content-addressed names the client cannot write to, and the attachments point there.
+   */
+  @Transactional
+  public List<Integer> finalizeUploads(
+      FinalizeUploadsRequestDto request,
+      Integer userId,
+      Integer divisionId,
+      Collection<String> authorities) {
+    List<UUID> sessionIds = request.uploadSessionIds().stream().distinct().toList();
+    List<UploadSession> sessions =
+        new ArrayList<>(uploadSessionRepository.findAllByIdInAndUserId(sessionIds, userId));
+    if (sessions.size() != sessionIds.size()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session not found");
+    }
+    sessions.sort(Comparator.comparingInt(session -> sessionIds.indexOf(session.getId())));
+
+    Instant now = Instant.now();
+    List<UploadedObject> uploads = new ArrayList<>(sessions.size());
+    for (UploadSession session : sessions) {
+      if (session.getExpiresAt().isBefore(now)) {
+        throw new ResponseStatusException(HttpStatus.GONE, "Upload session has expired");
+      }
+      uploads.add(verifyUpload(session));
+    }
+
+    List<Integer> attachmentIds =
+        switch (request.parentType()) {
+          case LETTER ->
+              letterService.addUploadedAttachments(
+                  request.parentId(), uploads, userId, divisionId, authorities);
+          case LETTER_EVENT ->
+              letterService.addUploadedAttachmentsToEvent(
+                  request.parentId(), uploads, userId, divisionId, authorities);
+          case CABINET_PAPER -> {
+            if (!authorities.contains("cabinet:update")) {
+              throw new ResponseStatusException(
+                  HttpStatus.FORBIDDEN,
+                  "You do not have permission to add an attachment to this cabinet paper");
+            }
+            yield cabinetPaperService.addUploadedAttachments(request.parentId(), uploads);
+          }
+        };
+    uploadSessionRepository.deleteAll(sessions);
+    return attachmentIds;
+  }
+
+  /** Removes sessions that were never finalized and queues anything uploaded for deletion. */
+  @Transactional
+  public int removeExpiredUploadSessions() {
+    List<UploadSession> expired =
+        uploadSessionRepository.findByExpiresAtBeforeOrderByExpiresAt(
+            Instant.now(), Limit.of(EXPIRED_SESSION_BATCH_SIZE));
+    storageService.release(expired.stream().map(UploadSession::getObjectName).toList());
+    uploadSessionRepository.deleteAll(expired);
+    return expired.size();
+  }
+
+  private UploadedObject verifyUpload(UploadSession session) {
+    StoredObject object;
+    try {
+      object = storageService.stat(session.getObjectName());
+    } catch (ResponseStatusException e) {
+      if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+        throw new ResponseStatusException(
+            HttpStatus.CONFLICT, "File " + session.getFileName() + " has not been uploaded");
+      }
+      throw e;
+    }
+    if (object.size() != session.getFileSize()) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST,
+          "Uploaded size of " + session.getFileName() + " does not match the declared size");
+    }
+    if (!session.getContentType().equals(object.contentType())) {
+      throw new ResponseStatusException(
+          HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+          "Uploaded type of " + session.getFileName() + " does not match the declared type");
+    }
+    ContentDigest digest =
+        storageService.digest(session.getObjectName(), object.etag(), FileSignatures.LENGTH);
+    if (!FileSignatures.matches(session.getContentType(), digest.leadingBytes())) {
+      throw new ResponseStatusException(
+          HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+          "Content of " + session.getFileName() + " is not a valid " + session.getContentType());
+    }
+    String objectName =
+        storageService.adoptUpload(session.getObjectName(), object.etag(), digest, object.size());
+    return new UploadedObject(objectName, session.getFileName(), session.getContentType());
+  }
+}
@@ -0,0 +1,149 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Extracts plain text from the attachment types that can be searched. */
+@Component
+public class AttachmentTextExtractor {
+  static final String TEXT_PLAIN = "text/plain";
+  static final String PDF = "application/pdf";
+  static final String DOCX =
+      "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+  static final List<String> SUPPORTED_TYPES = List.of(TEXT_PLAIN, PDF, DOCX);
+
+  private static final int READ_BUFFER_SIZE = 8192;
+  private static final long PDF_MEMORY_LIMIT = 16L * 1024 * 1024;
+  private static final String DOCX_BODY = "word/document.xml";
+  private static final String WORDML_NS =
+      "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+  private final int maxChars;
+  private final XMLInputFactory xmlInputFactory;
+
+  public AttachmentTextExtractor(
+      @Value("${custom.attachments.extraction.max-chars}") int maxChars) {
+    this.maxChars = maxChars;
+    this.xmlInputFactory = XMLInputFactory.newFactory();
+    xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+  }
+
+  public boolean supports(String contentType) {
+    return TEXT_PLAIN.equals(contentType) || PDF.equals(contentType) || DOCX.equals(contentType);
+  }
+
+  /** Returns the text of the file, truncated to the configured limit, or empty if unsupported. */
+  public Optional<String> extract(String contentType, InputStream in) throws IOException {
+    if (contentType == null) {
+      return Optional.empty();
+    }
+    String text =
+        switch (contentType) {
+          case TEXT_PLAIN -> extractPlainText(in);
+          case PDF -> extractPdf(in);
+          case DOCX -> extractDocx(in);
+          default -> null;
+        };
+    return Optional.ofNullable(text).map(String::strip).filter(t -> !t.isEmpty());
+  }
+
+  // Reads through a small buffer so a short file doesn't cost a maxChars-sized allocation
+  private String extractPlainText(InputStream in) throws IOException {
+    Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+    char[] buffer = new char[READ_BUFFER_SIZE];
+    StringBuilder text = new StringBuilder();
+    int read;
+    while (text.length() < maxChars
+        && (read = reader.read(buffer, 0, Math.min(buffer.length, maxChars - text.length())))
+            != -1) {
+      text.append(buffer, 0, read);
+    }
+    return text.toString();
+  }
+
+  // Parses from a temp file, keeping at most PDF_MEMORY_LIMIT of decoded streams on the heap, and
+  // stops reading pages once the text limit is reached
+  private String extractPdf(InputStream in) throws IOException {
+    Path file = Files.createTempFile("attachment-", ".pdf");
+    try {
+      Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+      try (PDDocument document =
+          Loader.loadPDF(
+              file.toFile(), MemoryUsageSetting.setupMixed(PDF_MEMORY_LIMIT).streamCache)) {
+        PDFTextStripper stripper = new PDFTextStripper();
+        StringBuilder text = new StringBuilder();
+        int pageCount = document.getNumberOfPages();
+        for (int page = 1; page <= pageCount && text.length() < maxChars; page++) {
+          stripper.setStartPage(page);
+          stripper.setEndPage(page);
+          text.append(stripper.getText(document));
+        }
+        return truncate(text.toString());
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private String extractDocx(InputStream in) throws IOException {
+    ZipInputStream zip = new ZipInputStream(in);
+    ZipEntry entry;
+    while ((entry = zip.getNextEntry()) != null) {
+      if (DOCX_BODY.equals(entry.getName())) {
+        return readWordprocessingText(zip);
+      }
+    }
+    return null;
+  }
+
+  private String readWordprocessingText(InputStream documentXml) throws IOException {
+    StringBuilder text = new StringBuilder();
+    try {
+      XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(documentXml);
+      boolean inText = false;
+      while (reader.hasNext() && text.length() < maxChars) {
+        int event = reader.next();
+        if (event == XMLStreamReader.START_ELEMENT && isWordElement(reader, "t")) {
+          inText = true;
+        } else if (event == XMLStreamReader.END_ELEMENT && isWordElement(reader, "t")) {
+          inText = false;
+        } else if (event == XMLStreamReader.END_ELEMENT && isWordElement(reader, "p")) {
+          text.append('\n');
+        } else if (event == XMLStreamReader.CHARACTERS && inText) {
+          text.append(reader.getText());
+        }
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException("Malformed DOCX document", e);
+    }
+    return truncate(text.toString());
+  }
+
+  private boolean isWordElement(XMLStreamReader reader, String localName) {
+    return WORDML_NS.equals(reader.getNamespaceURI()) && localName.equals(reader.getLocalName());
+  }
+
+  private String truncate(String text) {
+    return text.length() > maxChars ? text.substring(0, maxChars) : text;
+  }
+}
@@ -0,0 +1,6 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import java.util.List;
+
+/** Published when new attachments have been stored, once per upload request. */
+public record AttachmentsSavedEvent(List<Integer> attachmentIds) {}
@@ -0,0 +1,11 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public record CreateUploadSessionRequestDto(
+    @NotBlank(message = "File name is required") @Size(max = 255) String fileName,
+    @NotBlank(message = "Content type is required") @Size(max = 50) String contentType,
+    @NotNull(message = "File size is required") @Positive Long fileSize) {}
@@ -0,0 +1,44 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Checks the first bytes of a file against the signature of the type it claims to be, so an
+ * upload cannot pass as one of the accepted types just by declaring it.
+ */
+final class FileSignatures {
+  /** How many leading bytes {@link #matches} needs to see. */
+  static final int LENGTH = 512;
+
+  private static final byte[] OLE = {
+    (byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1
+  };
+  private static final byte[] ZIP = {0x50, 0x4B, 0x03, 0x04};
+
+  private static final Map<String, byte[]> SIGNATURES =
+      Map.of(
+          "application/pdf", new byte[] {0x25, 0x50, 0x44, 0x46, 0x2D}, // %PDF-
+          "image/png", new byte[] {(byte) 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A},
+          "image/jpeg", new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF},
+          "application/msword", OLE,
+          "application/vnd.openxmlformats-officedocument.wordprocessingml.document", ZIP);
+
+  private FileSignatures() {}
+
+  /** Plain text has no signature; it is accepted as long as it contains no NUL bytes. */
+  static boolean matches(String contentType, byte[] leadingBytes) {
+    if ("text/plain".equals(contentType)) {
+      for (byte b : leadingBytes) {
+        if (b == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+    byte[] signature = SIGNATURES.get(contentType);
+    return signature != null
+        && leadingBytes.length >= signature.length
+        && Arrays.equals(leadingBytes, 0, signature.length, signature, 0, signature.length);
+  }
+}
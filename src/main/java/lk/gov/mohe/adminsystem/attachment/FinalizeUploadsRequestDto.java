@@ -0,0 +1,11 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.UUID;
+
+public record FinalizeUploadsRequestDto(
+    @NotNull(message = "Parent type is required") ParentTypeEnum parentType,
+    @NotNull(message = "Parent ID is required") Integer parentId,
+    @NotEmpty(message = "At least one upload session is required") List<UUID> uploadSessionIds) {}
@@ -0,0 +1,56 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
+import java.util.UUID;
+import lk.gov.mohe.adminsystem.user.User;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "attachment_upload_sessions")
+public class UploadSession {
+  @Id
+  @Column(name = "id", nullable = false)
+  private UUID id;
+
+  @NotNull
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "user_id", nullable = false)
+  private User user;
+
+  @Size(max = 255)
+  @NotNull
+  @Column(name = "object_name", nullable = false)
+  private String objectName;
+
+  @Size(max = 255)
+  @NotNull
+  @Column(name = "file_name", nullable = false)
+  private String fileName;
+
+  @Size(max = 50)
+  @NotNull
+  @Column(name = "content_type", nullable = false, length = 50)
+  private String contentType;
+
+  @NotNull
+  @Column(name = "file_size", nullable = false)
+  private Long fileSize;
+
+  @Column(name = "created_at")
+  private Instant createdAt;
+
+  @NotNull
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+
+  @PrePersist
+  public void onCreate() {
+    createdAt = Instant.now();
+  }
+}
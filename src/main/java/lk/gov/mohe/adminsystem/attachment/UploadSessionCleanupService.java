@@ -0,0 +1,28 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/** Scheduled cleanup of direct uploads that were never finalized. */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadSessionCleanupService {
+
+  private final AttachmentService attachmentService;
+
+  /** Runs every fifteen minutes. */
+  @Scheduled(cron = "0 */15 * * * *")
+  public void cleanupExpiredSessions() {
+    try {
+      int removed = attachmentService.removeExpiredUploadSessions();
+      if (removed > 0) {
+        log.debug("Removed {} expired upload sessions", removed);
+      }
+    } catch (Exception e) {
+      log.error("Error during upload session cleanup", e);
+    }
+  }
+}
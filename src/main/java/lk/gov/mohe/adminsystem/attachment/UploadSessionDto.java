@@ -0,0 +1,10 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A presigned slot to PUT one file to. The request must send the declared {@code Content-Type};
+ * the size and type are checked when the upload is finalized.
+ */
+public record UploadSessionDto(UUID id, String uploadUrl, Instant expiresAt) {}
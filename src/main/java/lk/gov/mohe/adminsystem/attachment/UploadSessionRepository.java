@@ -0,0 +1,14 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, UUID> {
+  List<UploadSession> findAllByIdInAndUserId(Collection<UUID> ids, Integer userId);
+
+  List<UploadSession> findByExpiresAtBeforeOrderByExpiresAt(Instant now, Limit limit);
+}
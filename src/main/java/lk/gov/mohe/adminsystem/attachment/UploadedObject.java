@@ -0,0 +1,4 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+/** An object already in storage that is ready to be recorded as an attachment. */
+public record UploadedObject(String objectName, String fileName, String contentType) {}
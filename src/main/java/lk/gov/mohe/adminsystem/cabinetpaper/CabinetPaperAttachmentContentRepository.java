@@ -0,0 +1,6 @@
+package lk.gov.mohe.adminsystem.cabinetpaper;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CabinetPaperAttachmentContentRepository
+    extends JpaRepository<CabinetPaperAttachmentContent, Integer> {}
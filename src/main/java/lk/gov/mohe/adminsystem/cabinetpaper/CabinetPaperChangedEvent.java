@@ -0,0 +1,4 @@
+package lk.gov.mohe.adminsystem.cabinetpaper;
+
+/** Published when a cabinet paper or its decision is created, updated or deleted. */
+public record CabinetPaperChangedEvent(Integer cabinetPaperId) {}
@@ -0,0 +1,162 @@
+package lk.gov.mohe.adminsystem.cabinetpaper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+/**
+ * Ranked cabinet paper search over the paper's own fields and the extracted text of its
+ * attachments. Attachment matches go through the PGroonga index on
+ * cabinet_paper_attachment_contents, and scores and snippets come back in the same statement.
+ */
+@Repository
+@RequiredArgsConstructor
+class CabinetPaperContentSearch {
+  // Scores need the primary key in the PGroonga index on the contents (see V17). &@ matches the
+  // text as a keyword, so query syntax typed by a user is searched for rather than parsed
+  private static final String CONTENT_HITS =
+      """
+      WITH scored_contents AS (
+          SELECT a.parent_id AS paper_id, c.text, pgroonga_score(c.tableoid, c.ctid) AS score
+          FROM cabinet_paper_attachment_contents c
+                   JOIN attachments a ON a.id = c.attachment_id
+          WHERE c.text &@ :query
+            AND a.parent_type = 'CABINET_PAPER'),
+           content_hits AS (
+               SELECT paper_id,
+                      max(score) AS score,
+                      (array_agg(text ORDER BY score DESC))[1] AS best_text
+               FROM scored_contents
+               GROUP BY paper_id),
+      """;
+
+  // Counting only needs to know which papers have a hit, not how well they score
+  private static final String CONTENT_HIT_IDS =
+      """
+      WITH content_hits AS (
+          SELECT DISTINCT a.parent_id AS paper_id
+          FROM cabinet_paper_attachment_contents c
+                   JOIN attachments a ON a.id = c.attachment_id
+          WHERE c.text &@ :query
+            AND a.parent_type = 'CABINET_PAPER'),
+      """;
+
+  // A UNION rather than an OR across the join, so each branch can use its own index: the
+  // PGroonga index on the contents and the trigram indexes on the paper's fields (see V9)
+  private static final String MATCHED_IDS =
+      """
+           matched_ids AS (
+               SELECT paper_id AS id
+               FROM content_hits
+               UNION
+               SELECT id
+               FROM cabinet_papers
+               WHERE lower(reference_id) LIKE :queryLike
+                  OR lower(subject) LIKE :queryLike
+                  OR lower(summary) LIKE :queryLike)
+      """;
+
+  private static final String FROM_MATCHES =
+      """
+      FROM matched_ids m
+               JOIN cabinet_papers cp ON cp.id = m.id
+               LEFT JOIN content_hits h ON h.paper_id = cp.id
+               LEFT JOIN cabinet_paper_categories cat ON cat.id = cp.category_id
+               JOIN users u ON u.id = cp.submitted_by_user_id
+      WHERE (CAST(:status AS text) IS NULL OR CAST(cp.status AS text) = CAST(:status AS text))
+        AND (CAST(:categoryLike AS text) IS NULL OR lower(cat.name) LIKE CAST(:categoryLike AS text))
+        AND (CAST(:userLike AS text) IS NULL
+          OR lower(u.full_name) LIKE CAST(:userLike AS text)
+          OR lower(u.username) LIKE CAST(:userLike AS text)
+          OR lower(u.email) LIKE CAST(:userLike AS text))
+        AND (CAST(:createdAtFrom AS timestamptz) IS NULL OR cp.created_at >= CAST(:createdAtFrom AS timestamptz))
+        AND (CAST(:createdAtTo AS timestamptz) IS NULL OR cp.created_at <= CAST(:createdAtTo AS timestamptz))
+        AND (CAST(:updatedAtFrom AS timestamptz) IS NULL OR cp.updated_at >= CAST(:updatedAtFrom AS timestamptz))
+        AND (CAST(:updatedAtTo AS timestamptz) IS NULL OR cp.updated_at <= CAST(:updatedAtTo AS timestamptz))
+      """;
+
+  private static final String SELECT_PAGE =
+      CONTENT_HITS
+          + MATCHED_IDS
+          + """
+          SELECT cp.id,
+                 COALESCE(h.score, 0) AS score,
+                 CAST(to_json(pgroonga_snippet_html(h.best_text,
+                     ARRAY[CAST(:query AS text)])) AS text) AS snippets
+          """
+          + FROM_MATCHES
+          + " ORDER BY score DESC, cp.id DESC LIMIT :limit OFFSET :offset";
+
+  private static final String SELECT_COUNT =
+      CONTENT_HIT_IDS + MATCHED_IDS + "SELECT COUNT(*)\n" + FROM_MATCHES;
+
+  private static final TypeReference<List<String>> SNIPPETS = new TypeReference<>() {};
+
+  private final EntityManager entityManager;
+  private final ObjectMapper objectMapper;
+
+  record Match(Integer paperId, Double score, List<String> snippets) {}
+
+  List<Match> findMatches(CabinetPaperSearchParams params, long offset, int limit) {
+    NativeQuery<?> query = createQuery(SELECT_PAGE);
+    bindFilters(query, params);
+    query.setParameter("offset", offset);
+    query.setParameter("limit", limit);
+
+    @SuppressWarnings("unchecked")
+    List<Object[]> rows = (List<Object[]>) query.getResultList();
+    return rows.stream()
+        .map(
+            row ->
+                new Match(
+                    ((Number) row[0]).intValue(),
+                    ((Number) row[1]).doubleValue(),
+                    parseSnippets((String) row[2])))
+        .toList();
+  }
+
+  long countMatches(CabinetPaperSearchParams params) {
+    NativeQuery<?> query = createQuery(SELECT_COUNT);
+    bindFilters(query, params);
+    return ((Number) query.getSingleResult()).longValue();
+  }
+
+  private NativeQuery<?> createQuery(String sql) {
+    return entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+  }
+
+  private void bindFilters(NativeQuery<?> query, CabinetPaperSearchParams params) {
+    query.setParameter("query", params.getQuery());
+    query.setParameter("queryLike", like(params.getQuery()));
+    query.setParameter(
+        "status", params.getStatus() != null ? params.getStatus().name() : null);
+    query.setParameter("categoryLike", like(params.getCategoryName()));
+    query.setParameter("userLike", like(params.getSubmittedByUser()));
+    query.setParameter("createdAtFrom", params.getCreatedAtFrom(), Instant.class);
+    query.setParameter("createdAtTo", params.getCreatedAtTo(), Instant.class);
+    query.setParameter("updatedAtFrom", params.getUpdatedAtFrom(), Instant.class);
+    query.setParameter("updatedAtTo", params.getUpdatedAtTo(), Instant.class);
+  }
+
+  private List<String> parseSnippets(String json) {
+    if (json == null) {
+      return List.of();
+    }
+    try {
+      return objectMapper.readValue(json, SNIPPETS);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unreadable snippets from content search", e);
+    }
+  }
+
+  private String like(String term) {
+    return StringUtils.hasText(term) ? "%" + term.toLowerCase() + "%" : null;
+  }
+}
@@ -5,7 +5,7 @@ import java.net.URI;
 import java.util.List;
 import lk.gov.mohe.adminsystem.util.ApiResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,7 +21,7 @@ public class CabinetPaperController {
   @PreAuthorize("hasAuthority('cabinet:read')")
   public ApiResponse<List<CabinetPaperDto>> getCabinetPapers(
       @ModelAttribute CabinetPaperSearchParams params) {
-    Page<CabinetPaperDto> cabinetPapers = cabinetPaperService.searchCabinetPapers(params);
+    Slice<CabinetPaperDto> cabinetPapers = cabinetPaperService.searchCabinetPapers(params);
     return ApiResponse.paged(cabinetPapers);
   }
 
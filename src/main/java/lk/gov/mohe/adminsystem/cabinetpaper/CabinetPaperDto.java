@@ -18,4 +18,6 @@ public record CabinetPaperDto(
     Long noOfAttachments,
     List<AttachmentDto> attachments,
     String createdAt,
-    String updatedAt) {}
+    String updatedAt,
+    Double score,
+    List<String> snippets) {}
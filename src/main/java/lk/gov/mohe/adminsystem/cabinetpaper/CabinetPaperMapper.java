@@ -28,6 +28,14 @@ public abstract class CabinetPaperMapper {
   @Mapping(target = "attachments", ignore = true)
   public abstract CabinetPaperDto toCabinetPaperDtoMin(CabinetPaper cabinetPaper);
 
+  @Mapping(
+      source = "cabinetPaper.submittedByUser",
+      target = "submittedByUser",
+      qualifiedByName = "toUserDtoMin")
+  @Mapping(target = "attachments", ignore = true)
+  public abstract CabinetPaperDto toCabinetPaperDtoRanked(
+      CabinetPaper cabinetPaper, Long noOfAttachments, Double score, List<String> snippets);
+
   @Mapping(
       source = "cabinetPaper.submittedByUser",
       target = "submittedByUser",
@@ -1,6 +1,7 @@
 package lk.gov.mohe.adminsystem.cabinetpaper;
 
 import java.time.Instant;
+import lk.gov.mohe.adminsystem.util.CountMode;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -12,6 +13,7 @@ public class CabinetPaperSearchParams {
   private CabinetPaperStatusEnum status;
   private String categoryName;
   private String submittedByUser;
+  private Boolean searchAttachments = false;
 
   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
   private Instant createdAtFrom;
@@ -27,4 +29,5 @@ public class CabinetPaperSearchParams {
 
   private Integer page = 0;
   private Integer pageSize = 10;
+  private CountMode count = CountMode.EXACT;
 }
@@ -1,24 +1,36 @@
 package lk.gov.mohe.adminsystem.cabinetpaper;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import lk.gov.mohe.adminsystem.attachment.Attachment;
 import lk.gov.mohe.adminsystem.attachment.AttachmentRepository;
+import lk.gov.mohe.adminsystem.attachment.AttachmentsSavedEvent;
 import lk.gov.mohe.adminsystem.attachment.ParentTypeEnum;
+import lk.gov.mohe.adminsystem.attachment.UploadedObject;
 import lk.gov.mohe.adminsystem.cabinetpaper.category.CabinetPaperCategory;
 import lk.gov.mohe.adminsystem.cabinetpaper.category.CabinetPaperCategoryRepository;
 import lk.gov.mohe.adminsystem.security.CurrentUserProvider;
 import lk.gov.mohe.adminsystem.storage.MinioStorageService;
-import lk.gov.mohe.adminsystem.user.User;
+import lk.gov.mohe.adminsystem.util.CountMode;
+import lk.gov.mohe.adminsystem.util.PagingUtil;
+import lk.gov.mohe.adminsystem.util.RowCountEstimator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,18 +50,83 @@ public class CabinetPaperService {
   private final MinioStorageService storageService;
   private final CurrentUserProvider currentUserProvider;
   private final CabinetPaperMapper cabinetPaperMapper;
+  private final RowCountEstimator rowCountEstimator;
+  private final ApplicationEventPublisher eventPublisher;
+  private final CabinetPaperContentSearch contentSearch;
 
   @Value("${custom.attachments.accepted-mime-types}")
   private final Set<String> acceptedMimeTypes;
 
   @Transactional(readOnly = true)
-  public Page<CabinetPaperDto> searchCabinetPapers(CabinetPaperSearchParams params) {
+  public Slice<CabinetPaperDto> searchCabinetPapers(CabinetPaperSearchParams params) {
     Pageable pageable = PageRequest.of(params.getPage(), params.getPageSize());
+    if (Boolean.TRUE.equals(params.getSearchAttachments())
+        && StringUtils.hasText(params.getQuery())) {
+      return searchWithAttachmentContents(params, pageable);
+    }
     Specification<CabinetPaper> spec = buildSearchSpec(params);
-    Page<CabinetPaper> cabinetPapers = cabinetPaperRepository.findAll(spec, pageable);
+    Slice<CabinetPaper> cabinetPapers =
+        PagingUtil.findAll(
+            cabinetPaperRepository,
+            spec,
+            pageable,
+            params.getCount(),
+            () -> rowCountEstimator.estimate(CabinetPaper.class));
     return cabinetPapers.map(cabinetPaperMapper::toCabinetPaperDtoMin);
   }
 
+  private Slice<CabinetPaperDto> searchWithAttachmentContents(
+      CabinetPaperSearchParams params, Pageable pageable) {
+    // The content search is always filtered, so ESTIMATE falls back to an exact count
+    boolean counted = params.getCount() != CountMode.NONE;
+    int limit = counted ? pageable.getPageSize() : pageable.getPageSize() + 1;
+    List<CabinetPaperContentSearch.Match> matches =
+        contentSearch.findMatches(params, pageable.getOffset(), limit);
+
+    boolean hasNext = matches.size() > pageable.getPageSize();
+    if (hasNext) {
+      matches = matches.subList(0, pageable.getPageSize());
+    }
+
+    Map<Integer, CabinetPaper> papersById =
+        cabinetPaperRepository
+            .findAllById(matches.stream().map(CabinetPaperContentSearch.Match::paperId).toList())
+            .stream()
+            .collect(Collectors.toMap(CabinetPaper::getId, Function.identity()));
+    Map<Integer, Long> attachmentCounts = countAttachments(papersById.keySet());
+    List<CabinetPaperDto> content =
+        matches.stream()
+            .filter(match -> papersById.containsKey(match.paperId()))
+            .map(
+                match ->
+                    cabinetPaperMapper.toCabinetPaperDtoRanked(
+                        papersById.get(match.paperId()),
+                        attachmentCounts.getOrDefault(match.paperId(), 0L),
+                        match.score(),
+                        match.snippets()))
+            .toList();
+
+    if (!counted) {
+      return new SliceImpl<>(content, pageable, hasNext);
+    }
+    return PageableExecutionUtils.getPage(
+        content, pageable, () -> contentSearch.countMatches(params));
+  }
+
+  private Map<Integer, Long> countAttachments(Collection<Integer> paperIds) {
+    if (paperIds.isEmpty()) {
+      return Map.of();
+    }
+
+    Map<Integer, Long> paperIdToCountMap = new HashMap<>();
+    for (Object[] row :
+        attachmentRepository.countByParentTypeAndParentIdIn(
+            ParentTypeEnum.CABINET_PAPER, paperIds)) {
+      paperIdToCountMap.put((Integer) row[0], (Long) row[1]);
+    }
+    return paperIdToCountMap;
+  }
+
   private Specification<CabinetPaper> buildSearchSpec(CabinetPaperSearchParams params) {
     if (params == null) {
       return null;
@@ -157,12 +234,12 @@ public class CabinetPaperService {
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
     cabinetPaper.setCategory(category);
 
-    User currentUser = currentUserProvider.getCurrentUserOrThrow();
-    cabinetPaper.setSubmittedByUser(currentUser);
+    cabinetPaper.setSubmittedByUser(currentUserProvider.getCurrentUserReference());
 
     CabinetPaper savedCabinetPaper = cabinetPaperRepository.save(cabinetPaper);
 
     saveAttachments(savedCabinetPaper, attachments);
+    eventPublisher.publishEvent(new CabinetPaperChangedEvent(savedCabinetPaper.getId()));
 
     return savedCabinetPaper;
   }
@@ -204,10 +281,24 @@ public class CabinetPaperService {
     if (newAttachments != null && newAttachments.length > 0) {
       saveAttachments(updatedCabinetPaper, newAttachments);
     }
+    eventPublisher.publishEvent(new CabinetPaperChangedEvent(updatedCabinetPaper.getId()));
 
     return updatedCabinetPaper;
   }
 
+  /** Records objects uploaded directly to storage as attachments of the cabinet paper. */
+  @Transactional
+  public List<Integer> addUploadedAttachments(Integer id, List<UploadedObject> uploads) {
+    CabinetPaper cabinetPaper =
+        cabinetPaperRepository
+            .findById(id)
+            .orElseThrow(
+                () ->
+                    new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, CABINET_PAPER_NOT_FOUND + id));
+    return persistAttachments(cabinetPaper, uploads).stream().map(Attachment::getId).toList();
+  }
+
   @Transactional
   public void deleteCabinetPaper(Integer id) {
     CabinetPaper cabinetPaper =
@@ -218,49 +309,60 @@ public class CabinetPaperService {
                     new ResponseStatusException(
                         HttpStatus.NOT_FOUND, CABINET_PAPER_NOT_FOUND + id));
 
-    // Get all attachments and delete from storage
+    // Get all attachments and queue their stored objects for deletion
     List<Attachment> attachments =
         attachmentRepository.findByParentTypeAndParentId(
             ParentTypeEnum.CABINET_PAPER, cabinetPaper.getId());
 
-    for (Attachment attachment : attachments) {
-      try {
-        storageService.delete(attachment.getFilePath());
-      } catch (Exception e) {
-        // Log error but continue with deletion
-        log.error("Failed to delete file: {}", attachment.getFilePath(), e);
-      }
-    }
+    storageService.release(attachments.stream().map(Attachment::getFilePath).toList());
 
     // Delete attachments from database
     attachmentRepository.deleteAll(attachments);
 
     // Delete cabinet paper
     cabinetPaperRepository.delete(cabinetPaper);
+    eventPublisher.publishEvent(new CabinetPaperChangedEvent(id));
   }
 
   private List<Attachment> saveAttachments(CabinetPaper cabinetPaper, MultipartFile[] files) {
-    List<Attachment> attachmentList = new ArrayList<>();
-    if (files != null) {
-      for (MultipartFile file : files) {
-        if (file.isEmpty()) {
-          throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "One of the files is empty");
-        }
-        if (!acceptedMimeTypes.contains(file.getContentType())) {
-          throw new ResponseStatusException(
-              HttpStatus.UNSUPPORTED_MEDIA_TYPE,
-              "Attachment type " + file.getContentType() + " is not supported");
-        }
-        Attachment attachment = new Attachment();
-        attachment.setFileName(file.getOriginalFilename());
-        String objectName = storageService.upload("cabinet-papers", file);
-        attachment.setFilePath(objectName);
-        attachment.setFileType(file.getContentType());
-        attachment.attachToParent(cabinetPaper);
-        attachment = attachmentRepository.save(attachment);
-        attachmentList.add(attachment);
+    if (files == null || files.length == 0) {
+      return new ArrayList<>();
+    }
+    for (MultipartFile file : files) {
+      if (file.isEmpty()) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "One of the files is empty");
       }
+      if (!acceptedMimeTypes.contains(file.getContentType())) {
+        throw new ResponseStatusException(
+            HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+            "Attachment type " + file.getContentType() + " is not supported");
+      }
+    }
+    List<String> objectNames = storageService.uploadAll(Arrays.asList(files));
+
+    List<UploadedObject> uploads = new ArrayList<>(files.length);
+    for (int i = 0; i < files.length; i++) {
+      uploads.add(
+          new UploadedObject(
+              objectNames.get(i), files[i].getOriginalFilename(), files[i].getContentType()));
+    }
+    return persistAttachments(cabinetPaper, uploads);
+  }
+
+  private List<Attachment> persistAttachments(
+      CabinetPaper cabinetPaper, List<UploadedObject> uploads) {
+    List<Attachment> attachments = new ArrayList<>(uploads.size());
+    for (UploadedObject upload : uploads) {
+      Attachment attachment = new Attachment();
+      attachment.setFileName(upload.fileName());
+      attachment.setFilePath(upload.objectName());
+      attachment.setFileType(upload.contentType());
+      attachment.attachToParent(cabinetPaper);
+      attachments.add(attachment);
     }
+    List<Attachment> attachmentList = attachmentRepository.saveAll(attachments);
+    eventPublisher.publishEvent(
+        new AttachmentsSavedEvent(attachmentList.stream().map(Attachment::getId).toList()));
     return attachmentList;
   }
 }
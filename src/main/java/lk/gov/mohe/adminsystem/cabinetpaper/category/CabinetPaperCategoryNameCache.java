@@ -0,0 +1,18 @@
+package lk.gov.mohe.adminsystem.cabinetpaper.category;
+
+import java.util.List;
+import lk.gov.mohe.adminsystem.util.CachedLookup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/** Category names in id order. Evicted by {@link CabinetPaperCategoryService} on every change. */
+@Component
+@RequiredArgsConstructor
+public class CabinetPaperCategoryNameCache extends CachedLookup<List<String>> {
+  private final CabinetPaperCategoryRepository repository;
+
+  @Override
+  protected List<String> load() {
+    return List.copyOf(repository.findAllNames());
+  }
+}
@@ -1,9 +1,11 @@
 package lk.gov.mohe.adminsystem.cabinetpaper.category;
 
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface CabinetPaperCategoryRepository
     extends JpaRepository<CabinetPaperCategory, Integer> {
@@ -15,4 +17,7 @@ public interface CabinetPaperCategoryRepository
   Optional<CabinetPaperCategory> findByName(String name);
 
   Page<CabinetPaperCategory> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+  @Query("SELECT c.name FROM CabinetPaperCategory c ORDER BY c.id")
+  List<String> findAllNames();
 }
@@ -17,6 +17,7 @@ public class CabinetPaperCategoryService {
   private final CabinetPaperCategoryMapper cabinetPaperCategoryMapper;
   private final CabinetPaperCategoryRepository repository;
   private final CabinetPaperRepository cabinetPaperRepository;
+  private final CabinetPaperCategoryNameCache categoryNameCache;
 
   @Transactional(readOnly = true)
   public Page<CabinetPaperCategoryDto> getAllCategories(
@@ -40,7 +41,9 @@ public class CabinetPaperCategoryService {
     }
 
     CabinetPaperCategory category = cabinetPaperCategoryMapper.toEntity(request);
-    return repository.save(category);
+    CabinetPaperCategory savedCategory = repository.save(category);
+    categoryNameCache.evict();
+    return savedCategory;
   }
 
   @Transactional
@@ -60,7 +63,9 @@ public class CabinetPaperCategoryService {
     }
 
     cabinetPaperCategoryMapper.updateEntityFromDto(request, category);
-    return repository.save(category);
+    CabinetPaperCategory savedCategory = repository.save(category);
+    categoryNameCache.evict();
+    return savedCategory;
   }
 
   @Transactional
@@ -80,5 +85,6 @@ public class CabinetPaperCategoryService {
     }
 
     repository.deleteById(id);
+    categoryNameCache.evict();
   }
 }
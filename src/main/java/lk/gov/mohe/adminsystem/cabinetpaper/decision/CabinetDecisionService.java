@@ -1,11 +1,12 @@
 package lk.gov.mohe.adminsystem.cabinetpaper.decision;
 
 import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaper;
+import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperChangedEvent;
 import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperRepository;
 import lk.gov.mohe.adminsystem.security.CurrentUserProvider;
-import lk.gov.mohe.adminsystem.user.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +26,7 @@ public class CabinetDecisionService {
   private final CabinetPaperRepository cabinetPaperRepository;
   private final CabinetDecisionMapper decisionMapper;
   private final CurrentUserProvider currentUserProvider;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Transactional(readOnly = true)
   public Page<CabinetDecisionDto> getAllDecisions(Integer page, Integer pageSize) {
@@ -77,10 +79,11 @@ public class CabinetDecisionService {
     CabinetDecision decision = decisionMapper.toEntity(request);
     decision.setPaper(paper);
 
-    User currentUser = currentUserProvider.getCurrentUserOrThrow();
-    decision.setRecordedByUser(currentUser);
+    decision.setRecordedByUser(currentUserProvider.getCurrentUserReference());
 
-    return decisionRepository.save(decision);
+    CabinetDecision savedDecision = decisionRepository.save(decision);
+    eventPublisher.publishEvent(new CabinetPaperChangedEvent(paper.getId()));
+    return savedDecision;
   }
 
   @Transactional
@@ -92,14 +95,19 @@ public class CabinetDecisionService {
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, DECISION_NOT_FOUND + id));
 
     decisionMapper.updateEntityFromDto(request, decision);
-    return decisionRepository.save(decision);
+    CabinetDecision savedDecision = decisionRepository.save(decision);
+    eventPublisher.publishEvent(new CabinetPaperChangedEvent(decision.getPaper().getId()));
+    return savedDecision;
   }
 
   @Transactional
   public void deleteDecision(Integer id) {
-    if (!decisionRepository.existsById(id)) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, DECISION_NOT_FOUND + id);
-    }
-    decisionRepository.deleteById(id);
+    CabinetDecision decision =
+        decisionRepository
+            .findById(id)
+            .orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, DECISION_NOT_FOUND + id));
+    decisionRepository.delete(decision);
+    eventPublisher.publishEvent(new CabinetPaperChangedEvent(decision.getPaper().getId()));
   }
 }
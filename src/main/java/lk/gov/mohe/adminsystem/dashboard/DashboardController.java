@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -24,7 +25,10 @@ public class DashboardController {
             .map(GrantedAuthority::getAuthority)
             .collect(Collectors.toSet());
 
-    DashboardStatsDto stats = dashboardService.getDashboardStats(authorities);
+    Jwt jwt = (Jwt) authentication.getPrincipal();
+    DashboardStatsDto stats =
+        dashboardService.getDashboardStats(
+            jwt.getClaim("userId"), jwt.getClaim("divisionId"), authorities);
     return ApiResponse.of(stats);
   }
 }
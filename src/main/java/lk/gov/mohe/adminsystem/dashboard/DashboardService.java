@@ -1,28 +1,40 @@
 package lk.gov.mohe.adminsystem.dashboard;
 
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperRepository;
 import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperStatusEnum;
-import lk.gov.mohe.adminsystem.cabinetpaper.category.CabinetPaperCategoryRepository;
+import lk.gov.mohe.adminsystem.cabinetpaper.category.CabinetPaperCategoryNameCache;
 import lk.gov.mohe.adminsystem.cabinetpaper.decision.CabinetDecisionRepository;
 import lk.gov.mohe.adminsystem.dashboard.DashboardStatsDto.*;
-import lk.gov.mohe.adminsystem.division.Division;
-import lk.gov.mohe.adminsystem.division.DivisionRepository;
+import lk.gov.mohe.adminsystem.division.DivisionNameCache;
 import lk.gov.mohe.adminsystem.letter.LetterRepository;
+import lk.gov.mohe.adminsystem.letter.LetterStatsKey;
+import lk.gov.mohe.adminsystem.letter.LetterStatsService;
 import lk.gov.mohe.adminsystem.letter.PriorityEnum;
 import lk.gov.mohe.adminsystem.letter.StatusEnum;
 import lk.gov.mohe.adminsystem.role.RoleRepository;
-import lk.gov.mohe.adminsystem.security.CurrentUserProvider;
-import lk.gov.mohe.adminsystem.user.User;
 import lk.gov.mohe.adminsystem.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Slf4j
 @Service
@@ -30,56 +42,145 @@ import org.springframework.transaction.annotation.Transactional;
 public class DashboardService {
   private final UserRepository userRepository;
   private final LetterRepository letterRepository;
+  private final LetterStatsService letterStatsService;
   private final CabinetPaperRepository cabinetPaperRepository;
   private final CabinetDecisionRepository cabinetDecisionRepository;
-  private final DivisionRepository divisionRepository;
   private final RoleRepository roleRepository;
-  private final CabinetPaperCategoryRepository categoryRepository;
-  private final CurrentUserProvider currentUserProvider;
-
-  @Transactional(readOnly = true)
-  public DashboardStatsDto getDashboardStats(Collection<String> authorities) {
-    User currentUser = currentUserProvider.getCurrentUserOrThrow();
-    UserStats userStats = null;
-    LetterStats letterStats = null;
-    CabinetPaperStats cabinetPaperStats = null;
-    DivisionStats divisionStats = null;
-    RoleStats roleStats = null;
+  private final DivisionNameCache divisionNameCache;
+  private final CabinetPaperCategoryNameCache categoryNameCache;
+  private final DashboardStatsCache statsCache;
+
+  private final PlatformTransactionManager transactionManager;
+
+  // Sections block on the database, so each gets a virtual thread rather than a pooled one
+  private final ExecutorService sectionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  // Bounds the connections dashboard sections hold across all requests, so a burst of cold
+  // dashboards cannot take the whole pool from other requests
+  private Semaphore sectionPermits;
+
+  @Value("${custom.dashboard.section-timeout}")
+  private Duration sectionTimeout;
+
+  @Value("${custom.dashboard.max-concurrent-sections}")
+  void setMaxConcurrentSections(int maxConcurrentSections) {
+    this.sectionPermits = new Semaphore(maxConcurrentSections);
+  }
+
+  /**
+   * Each section is cached per scope key in {@link DashboardStatsCache}. Sections are fetched
+   * concurrently, each in its own read-only transaction, and one that fails or takes longer than
+   * the section timeout is returned as null instead of failing the whole dashboard.
+   */
+  public DashboardStatsDto getDashboardStats(
+      Integer userId, Integer divisionId, Collection<String> authorities) {
+    Future<UserStats> userStats = null;
+    Future<LetterStats> letterStats = null;
+    Future<CabinetPaperStats> cabinetPaperStats = null;
+    Future<DivisionStats> divisionStats = null;
+    Future<RoleStats> roleStats = null;
 
     // Check permissions and gather stats
     if (hasPermission(authorities, "user:read")) {
-      userStats = getUserStats();
+      userStats = fetchSection(DashboardStatsCache.USERS, this::getUserStats);
     }
 
     // Letter statistics based on scope
     if (hasPermission(authorities, "letter:all:read")) {
       // Full access - all letter statistics
-      letterStats = getAllLetterStats();
+      letterStats = fetchSection(DashboardStatsCache.ALL_LETTERS, this::getAllLetterStats);
     } else if (hasPermission(authorities, "letter:division:read")) {
       // Division scope - only their division's letters
-      letterStats = getDivisionLetterStats(currentUser);
+      letterStats =
+          fetchSection(
+              DashboardStatsCache.divisionLetters(divisionId),
+              () -> getDivisionLetterStats(divisionId));
     } else if (hasPermission(authorities, "letter:unassigned:read")) {
       // Unassigned scope - only unassigned letters
-      letterStats = getUnassignedLetterStats();
+      letterStats =
+          fetchSection(DashboardStatsCache.UNASSIGNED_LETTERS, this::getUnassignedLetterStats);
     } else if (hasPermission(authorities, "letter:own:manage")) {
       // Own letters scope - only letters assigned to them
-      letterStats = getOwnLetterStats(currentUser);
+      letterStats =
+          fetchSection(
+              DashboardStatsCache.ownLetters(userId), () -> getOwnLetterStats(userId, divisionId));
     }
 
     if (hasPermission(authorities, "cabinet:read")) {
-      cabinetPaperStats = getCabinetPaperStats();
+      cabinetPaperStats =
+          fetchSection(DashboardStatsCache.CABINET_PAPERS, this::getCabinetPaperStats);
     }
 
     if (hasPermission(authorities, "division:read")) {
-      divisionStats = getDivisionStats();
+      divisionStats = fetchSection(DashboardStatsCache.DIVISIONS, this::getDivisionStats);
     }
 
     if (hasPermission(authorities, "role:read")) {
-      roleStats = getRoleStats();
+      roleStats = fetchSection(DashboardStatsCache.ROLES, this::getRoleStats);
     }
 
+    // All sections started together, so they share one deadline
+    long deadline = System.nanoTime() + sectionTimeout.toNanos();
     return new DashboardStatsDto(
-        userStats, letterStats, cabinetPaperStats, divisionStats, roleStats);
+        awaitSection(DashboardStatsCache.USERS, userStats, deadline),
+        awaitSection("letters", letterStats, deadline),
+        awaitSection(DashboardStatsCache.CABINET_PAPERS, cabinetPaperStats, deadline),
+        awaitSection(DashboardStatsCache.DIVISIONS, divisionStats, deadline),
+        awaitSection(DashboardStatsCache.ROLES, roleStats, deadline));
+  }
+
+  @PreDestroy
+  void stopExecutor() {
+    sectionExecutor.shutdown();
+  }
+
+  private <T> Future<T> fetchSection(String key, Supplier<T> loader) {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    transaction.setReadOnly(true);
+    // Also applied to each statement, so a slow query is cancelled rather than left running
+    transaction.setTimeout((int) Math.max(1, sectionTimeout.toSeconds()));
+    return sectionExecutor.submit(
+        () -> statsCache.get(key, () -> loadWithPermit(transaction, loader)));
+  }
+
+  /**
+   * Only cache misses take a permit. A section that can't get one within the section timeout gives
+   * up, since its dashboard has stopped waiting for it by then.
+   */
+  private <T> T loadWithPermit(TransactionTemplate transaction, Supplier<T> loader) {
+    try {
+      if (!sectionPermits.tryAcquire(sectionTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+        throw new CancellationException("Timed out waiting for a database connection");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while waiting for a database connection");
+    }
+    try {
+      return transaction.execute(status -> loader.get());
+    } finally {
+      sectionPermits.release();
+    }
+  }
+
+  private <T> T awaitSection(String section, Future<T> future, long deadline) {
+    if (future == null) {
+      return null;
+    }
+    try {
+      return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      // Not interrupted: that would abort the JDBC read and the pool would evict the connection.
+      // The transaction timeout cancels the running statement instead
+      future.cancel(false);
+      log.warn("Dashboard section [{}] timed out after {}", section, sectionTimeout);
+    } catch (ExecutionException e) {
+      log.warn("Dashboard section [{}] failed", section, e.getCause());
+    } catch (InterruptedException e) {
+      future.cancel(false);
+      Thread.currentThread().interrupt();
+    }
+    return null;
   }
 
   private UserStats getUserStats() {
@@ -90,111 +191,80 @@ public class DashboardService {
   }
 
   private LetterStats getAllLetterStats() {
-    long totalLetters = letterRepository.count();
-    long unassignedLetters = letterRepository.countUnassignedLetters();
-
-    // Initialize all statuses with 0
-    Map<String, Long> lettersByStatus = initializeStatusMap();
-    letterRepository
-        .countByStatus()
-        .forEach(result -> lettersByStatus.put(result[0].toString(), (Long) result[1]));
-
-    // Initialize all priorities with 0
-    Map<String, Long> lettersByPriority = initializePriorityMap();
-    letterRepository
-        .countByPriority()
-        .forEach(result -> lettersByPriority.put(result[0].toString(), (Long) result[1]));
-
-    // Initialize all divisions with 0
-    Map<String, Long> lettersByDivision = initializeDivisionMap();
-    letterRepository
-        .countByDivision()
-        .forEach(result -> lettersByDivision.put(result[0].toString(), (Long) result[1]));
-
-    return new LetterStats(
-        totalLetters, unassignedLetters, lettersByStatus, lettersByPriority, lettersByDivision);
+    // Read from the materialized counts, a few rows regardless of how many letters there are
+    return toLetterStats(letterStatsService.getCounts());
   }
 
-  private LetterStats getDivisionLetterStats(User currentUser) {
-    if (currentUser.getDivision() == null) {
+  private LetterStats getDivisionLetterStats(Integer divisionId) {
+    if (divisionId == null) {
       // User has no division, return zero stats with all keys
-      return new LetterStats(
-          0L, 0L, initializeStatusMap(), initializePriorityMap(), initializeDivisionMap());
+      return toLetterStats(Map.of());
     }
+    // Unassigned letters don't belong to this scope, so the unassigned count stays 0
+    return toLetterStats(letterStatsService.getCounts(divisionId));
+  }
 
-    long totalLetters =
-        letterRepository.countByAssignedDivisionId(currentUser.getDivision().getId());
-    // Unassigned letters don't belong to this scope
+  private LetterStats getUnassignedLetterStats() {
+    return toLetterStats(letterStatsService.getCounts(LetterStatsKey.UNASSIGNED_DIVISION_ID));
+  }
+
+  private LetterStats getOwnLetterStats(Integer userId, Integer divisionId) {
+    long totalLetters = 0L;
+    // Own letters are already assigned
     long unassignedLetters = 0L;
 
-    // Initialize all statuses with 0, then populate
+    // Initialize all statuses and priorities with 0, then populate from one grouped query
     Map<String, Long> lettersByStatus = initializeStatusMap();
-    letterRepository
-        .countByStatusAndDivisionId(currentUser.getDivision().getId())
-        .forEach(result -> lettersByStatus.put(result[0].toString(), (Long) result[1]));
-
-    // Initialize all priorities with 0, then populate
     Map<String, Long> lettersByPriority = initializePriorityMap();
-    letterRepository
-        .countByPriorityAndDivisionId(currentUser.getDivision().getId())
-        .forEach(result -> lettersByPriority.put(result[0].toString(), (Long) result[1]));
+    for (Object[] row : letterRepository.countGroupedByAssignedUserId(userId)) {
+      long count = ((Number) row[2]).longValue();
+      if (row[0] != null) {
+        lettersByStatus.put((String) row[0], count);
+      } else if (row[1] != null) {
+        lettersByPriority.put((String) row[1], count);
+      } else {
+        totalLetters = count;
+      }
+    }
 
-    // Initialize all divisions with 0, then set their division
-    Map<String, Long> lettersByDivision = initializeDivisionMap();
-    lettersByDivision.put(currentUser.getDivision().getName(), totalLetters);
+    // Initialize all divisions with 0, then set user's division if they have one
+    Map<Integer, String> divisionNames = divisionNameCache.get();
+    Map<String, Long> lettersByDivision = initializeDivisionMap(divisionNames.values());
+    if (divisionId != null) {
+      String divisionName = divisionNames.get(divisionId);
+      if (divisionName != null) {
+        lettersByDivision.put(divisionName, totalLetters);
+      }
+    }
 
     return new LetterStats(
         totalLetters, unassignedLetters, lettersByStatus, lettersByPriority, lettersByDivision);
   }
 
-  private LetterStats getUnassignedLetterStats() {
-    long unassignedLetters = letterRepository.countUnassignedLetters();
+  /** Sums materialized counts into the dashboard's per-status, -priority and -division maps. */
+  private LetterStats toLetterStats(Map<LetterStatsKey, Long> counts) {
+    Map<Integer, String> divisionNames = divisionNameCache.get();
 
-    // Initialize all statuses with 0, then populate
-    Map<String, Long> lettersByStatus = initializeStatusMap();
-    letterRepository
-        .countUnassignedByStatus()
-        .forEach(result -> lettersByStatus.put(result[0].toString(), (Long) result[1]));
-
-    // Initialize all priorities with 0, then populate
-    Map<String, Long> lettersByPriority = initializePriorityMap();
-    letterRepository
-        .countUnassignedByPriority()
-        .forEach(result -> lettersByPriority.put(result[0].toString(), (Long) result[1]));
-
-    // Initialize all divisions with 0, then set unassigned
-    Map<String, Long> lettersByDivision = initializeDivisionMap();
-    lettersByDivision.put("Unassigned", unassignedLetters);
-
-    return new LetterStats(
-        unassignedLetters,
-        unassignedLetters,
-        lettersByStatus,
-        lettersByPriority,
-        lettersByDivision);
-  }
-
-  private LetterStats getOwnLetterStats(User currentUser) {
-    long totalLetters = letterRepository.countByAssignedUserId(currentUser.getId());
-    // Own letters are already assigned
+    long totalLetters = 0L;
     long unassignedLetters = 0L;
-
-    // Initialize all statuses with 0, then populate
     Map<String, Long> lettersByStatus = initializeStatusMap();
-    letterRepository
-        .countByStatusAndUserId(currentUser.getId())
-        .forEach(result -> lettersByStatus.put(result[0].toString(), (Long) result[1]));
-
-    // Initialize all priorities with 0, then populate
     Map<String, Long> lettersByPriority = initializePriorityMap();
-    letterRepository
-        .countByPriorityAndUserId(currentUser.getId())
-        .forEach(result -> lettersByPriority.put(result[0].toString(), (Long) result[1]));
-
-    // Initialize all divisions with 0, then set user's division if they have one
-    Map<String, Long> lettersByDivision = initializeDivisionMap();
-    if (currentUser.getDivision() != null) {
-      lettersByDivision.put(currentUser.getDivision().getName(), totalLetters);
+    Map<String, Long> lettersByDivision = initializeDivisionMap(divisionNames.values());
+    for (Map.Entry<LetterStatsKey, Long> entry : counts.entrySet()) {
+      LetterStatsKey key = entry.getKey();
+      long count = entry.getValue();
+      totalLetters += count;
+      lettersByStatus.merge(key.status().name(), count, Long::sum);
+      lettersByPriority.merge(key.priority().name(), count, Long::sum);
+      if (key.isUnassigned()) {
+        unassignedLetters += count;
+        lettersByDivision.merge("Unassigned", count, Long::sum);
+      } else {
+        String divisionName = divisionNames.get(key.divisionId());
+        if (divisionName != null) {
+          lettersByDivision.merge(divisionName, count, Long::sum);
+        }
+      }
     }
 
     return new LetterStats(
@@ -222,7 +292,7 @@ public class DashboardService {
   }
 
   private DivisionStats getDivisionStats() {
-    long totalDivisions = divisionRepository.count();
+    long totalDivisions = divisionNameCache.get().size();
     return new DivisionStats(totalDivisions);
   }
 
@@ -246,11 +316,10 @@ public class DashboardService {
         .collect(Collectors.toMap(Enum::name, priority -> 0L, (a, b) -> a, LinkedHashMap::new));
   }
 
-  private Map<String, Long> initializeDivisionMap() {
+  private Map<String, Long> initializeDivisionMap(Collection<String> divisionNames) {
     Map<String, Long> divisionMap =
-        divisionRepository.findAll().stream()
-            .collect(
-                Collectors.toMap(Division::getName, div -> 0L, (a, b) -> a, LinkedHashMap::new));
+        divisionNames.stream()
+            .collect(Collectors.toMap(name -> name, name -> 0L, (a, b) -> a, LinkedHashMap::new));
     // Always include "Unassigned" as a key
     divisionMap.put("Unassigned", 0L);
     return divisionMap;
@@ -262,9 +331,7 @@ public class DashboardService {
   }
 
   private Map<String, Long> initializeCategoryMap() {
-    return categoryRepository.findAll().stream()
-        .collect(
-            Collectors.toMap(
-                category -> category.getName(), cat -> 0L, (a, b) -> a, LinkedHashMap::new));
+    return categoryNameCache.get().stream()
+        .collect(Collectors.toMap(name -> name, name -> 0L, (a, b) -> a, LinkedHashMap::new));
   }
 }
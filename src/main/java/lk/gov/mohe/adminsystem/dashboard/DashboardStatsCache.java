@@ -0,0 +1,109 @@
+package lk.gov.mohe.adminsystem.dashboard;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperChangedEvent;
+import lk.gov.mohe.adminsystem.letter.LetterChangedEvent;
+import lk.gov.mohe.adminsystem.letter.LetterSnapshot;
+import lk.gov.mohe.adminsystem.letter.LetterStatsKey;
+import lk.gov.mohe.adminsystem.role.RoleChangedEvent;
+import lk.gov.mohe.adminsystem.user.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Dashboard sections by scope key. Entries are evicted once a change to the data behind them
+ * commits; the TTL only bounds how stale a section can get from changes that publish no event,
+ * such as renaming a division or category.
+ */
+@Component
+public class DashboardStatsCache {
+  static final String USERS = "users";
+  static final String ALL_LETTERS = "letters:all";
+  static final String UNASSIGNED_LETTERS = "letters:unassigned";
+  static final String CABINET_PAPERS = "cabinetPapers";
+  static final String DIVISIONS = "divisions";
+  static final String ROLES = "roles";
+  private static final String DIVISION_LETTERS = "letters:division:";
+  private static final String OWN_LETTERS = "letters:own:";
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  @Value("${custom.dashboard.stats-ttl}")
+  private Duration ttl;
+
+  private record Entry(Object value, Instant expiresAt) {}
+
+  static String divisionLetters(Integer divisionId) {
+    return DIVISION_LETTERS + divisionId;
+  }
+
+  static String ownLetters(Integer userId) {
+    return OWN_LETTERS + userId;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T get(String key, Supplier<T> loader) {
+    Entry entry = entries.get(key);
+    if (entry != null && entry.expiresAt().isAfter(Instant.now())) {
+      return (T) entry.value();
+    }
+    long loadedGeneration = generation.get();
+    T value = loader.get();
+    // A section loaded while a change committed may already be stale, so it is not kept. It is
+    // stored before the generation is checked again: an evict that starts after the check then
+    // still finds and removes it.
+    Entry loaded = new Entry(value, Instant.now().plus(ttl));
+    entries.put(key, loaded);
+    if (generation.get() != loadedGeneration) {
+      entries.remove(key, loaded);
+    }
+    return value;
+  }
+
+  void evict(Set<String> keys) {
+    generation.incrementAndGet();
+    entries.keySet().removeAll(keys);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onLetterChanged(LetterChangedEvent event) {
+    Set<String> keys = new HashSet<>();
+    keys.add(ALL_LETTERS);
+    for (LetterSnapshot snapshot : new LetterSnapshot[] {event.before(), event.after()}) {
+      if (snapshot == null) {
+        continue;
+      }
+      LetterStatsKey stats = snapshot.stats();
+      keys.add(stats.isUnassigned() ? UNASSIGNED_LETTERS : divisionLetters(stats.divisionId()));
+      if (snapshot.assignedUserId() != null) {
+        keys.add(ownLetters(snapshot.assignedUserId()));
+      }
+    }
+    evict(keys);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCabinetPaperChanged(CabinetPaperChangedEvent event) {
+    evict(Set.of(CABINET_PAPERS));
+  }
+
+  /** A user's division decides which division their own letters are reported under. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserChanged(UserChangedEvent event) {
+    evict(Set.of(USERS, ownLetters(event.userId())));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRoleChanged(RoleChangedEvent event) {
+    evict(Set.of(ROLES));
+  }
+}
@@ -3,8 +3,9 @@ package lk.gov.mohe.adminsystem.division;
 import jakarta.validation.Valid;
 import java.util.List;
 import lk.gov.mohe.adminsystem.util.ApiResponse;
+import lk.gov.mohe.adminsystem.util.CountMode;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,8 +22,9 @@ public class DivisionController {
   public ApiResponse<List<DivisionDto>> getDivisions(
       @RequestParam(defaultValue = "") String query,
       @RequestParam(defaultValue = "0") Integer page,
-      @RequestParam(defaultValue = "10") Integer pageSize) {
-    Page<DivisionDto> divisions = divisionService.getDivisions(query, page, pageSize);
+      @RequestParam(defaultValue = "10") Integer pageSize,
+      @RequestParam(defaultValue = "exact") CountMode count) {
+    Slice<DivisionDto> divisions = divisionService.getDivisions(query, page, pageSize, count);
     return ApiResponse.paged(divisions);
   }
 
@@ -0,0 +1,24 @@
+package lk.gov.mohe.adminsystem.division;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lk.gov.mohe.adminsystem.util.CachedLookup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/** Division names by id, in id order. Evicted by {@link DivisionService} on every change. */
+@Component
+@RequiredArgsConstructor
+public class DivisionNameCache extends CachedLookup<Map<Integer, String>> {
+  private final DivisionRepository divisionRepository;
+
+  @Override
+  protected Map<Integer, String> load() {
+    Map<Integer, String> names = new LinkedHashMap<>();
+    divisionRepository
+        .findAllIdsAndNames()
+        .forEach(row -> names.put((Integer) row[0], (String) row[1]));
+    return Collections.unmodifiableMap(names);
+  }
+}
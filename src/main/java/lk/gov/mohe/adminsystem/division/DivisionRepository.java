@@ -1,9 +1,11 @@
 package lk.gov.mohe.adminsystem.division;
 
 import jakarta.validation.constraints.NotBlank;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
@@ -17,4 +19,7 @@ public interface DivisionRepository
   Optional<Division> findByName(@NotBlank(message = "Division must not be blank") String division);
 
   Boolean existsByNameIgnoreCase(String name);
+
+  @Query("SELECT d.id, d.name FROM Division d ORDER BY d.id")
+  List<Object[]> findAllIdsAndNames();
 }
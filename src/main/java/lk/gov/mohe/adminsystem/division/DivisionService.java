@@ -1,8 +1,11 @@
 package lk.gov.mohe.adminsystem.division;
 
+import lk.gov.mohe.adminsystem.util.CountMode;
+import lk.gov.mohe.adminsystem.util.PagingUtil;
+import lk.gov.mohe.adminsystem.util.RowCountEstimator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -14,9 +17,12 @@ import org.springframework.web.server.ResponseStatusException;
 public class DivisionService {
   private final DivisionRepository divisionRepository;
   private final DivisionMapper divisionMapper;
+  private final RowCountEstimator rowCountEstimator;
+  private final DivisionNameCache divisionNameCache;
 
   @Transactional(readOnly = true)
-  public Page<DivisionDto> getDivisions(String query, Integer page, Integer pageSize) {
+  public Slice<DivisionDto> getDivisions(
+      String query, Integer page, Integer pageSize, CountMode countMode) {
     Pageable pageable = Pageable.ofSize(pageSize).withPage(page);
 
     Specification<Division> spec = null;
@@ -30,7 +36,13 @@ public class DivisionService {
                   criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), likeQuery));
     }
 
-    return divisionRepository.findAll(spec, pageable).map(divisionMapper::toDto);
+    return PagingUtil.findAll(
+            divisionRepository,
+            spec,
+            pageable,
+            countMode,
+            () -> rowCountEstimator.estimate(Division.class))
+        .map(divisionMapper::toDto);
   }
 
   @Transactional
@@ -41,6 +53,7 @@ public class DivisionService {
     }
     Division division = divisionMapper.dtoToDivision(dto);
     divisionRepository.save(division);
+    divisionNameCache.evict();
   }
 
   @Transactional
@@ -59,6 +72,7 @@ public class DivisionService {
 
     divisionMapper.updateDivisionFromDto(dto, existingDivision);
     divisionRepository.save(existingDivision);
+    divisionNameCache.evict();
   }
 
   @Transactional
@@ -69,5 +83,6 @@ public class DivisionService {
             .orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Division not found"));
     divisionRepository.delete(existingDivision);
+    divisionNameCache.evict();
   }
 }
@@ -12,6 +12,7 @@ import lk.gov.mohe.adminsystem.division.Division;
 import lk.gov.mohe.adminsystem.user.User;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -90,6 +91,11 @@ public class Letter implements AttachmentParent {
   @Column(name = "deleted_at")
   private Instant deletedAt;
 
+  // Relevance for the current full-text search, for sorting only. It is 0 unless the row was
+  // matched through the PGroonga index on letters, which includes id for this (see V16)
+  @Formula("pgroonga_score(tableoid, ctid)")
+  private Double searchScore;
+
   public ParentTypeEnum getType() {
     return ParentTypeEnum.LETTER;
   }
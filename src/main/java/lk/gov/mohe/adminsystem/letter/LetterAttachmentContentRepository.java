@@ -0,0 +1,6 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LetterAttachmentContentRepository
+    extends JpaRepository<LetterAttachmentContent, Integer> {}
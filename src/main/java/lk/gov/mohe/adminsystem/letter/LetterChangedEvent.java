@@ -0,0 +1,7 @@
+package lk.gov.mohe.adminsystem.letter;
+
+/**
+ * Published when a letter's status, priority or assignment changes. {@code before} is null for a
+ * new letter.
+ */
+public record LetterChangedEvent(Integer letterId, LetterSnapshot before, LetterSnapshot after) {}
@@ -6,21 +6,26 @@ import java.net.URI;
 import java.util.Collection;
 import java.util.List;
 import lk.gov.mohe.adminsystem.util.ApiResponse;
+import lk.gov.mohe.adminsystem.util.PagingUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequiredArgsConstructor
 public class LetterController {
   private final LetterService letterService;
+  private final LetterUpdateStream letterUpdateStream;
 
   @GetMapping("/letters")
   @PreAuthorize(
@@ -32,17 +37,48 @@ public class LetterController {
     Collection<String> authorities =
         authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
 
-    Page<LetterDto> letterPage =
+    if (Boolean.TRUE.equals(params.getCursor()) || StringUtils.hasText(params.getAfter())) {
+      Window<LetterDto> letterWindow =
+          letterService.scrollAccessibleLetters(
+              jwt.getClaim("userId"),
+              jwt.getClaim("divisionId"),
+              authorities,
+              params,
+              params.getAfter(),
+              params.getPageSize());
+      return ApiResponse.windowed(
+          letterWindow.getContent(), params.getPageSize(), LetterCursor.LETTERS.next(letterWindow));
+    }
+
+    Slice<LetterDto> letterPage =
         letterService.getAccessibleLetters(
             jwt.getClaim("userId"),
             jwt.getClaim("divisionId"),
             authorities,
             params,
             params.getPage(),
-            params.getPageSize());
+            params.getPageSize(),
+            params.getCount());
     return ApiResponse.paged(letterPage);
   }
 
+  /**
+   * Streams assignments, returns, acceptances and closures of the letters the caller can read, as
+   * Server-Sent Events named after the change. The stream ends when the access token expires.
+   */
+  @GetMapping(value = "/letters/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @PreAuthorize(
+      "hasAnyAuthority('letter:all:read', 'letter:unassigned:read', 'letter:division:read',"
+          + " 'letter:own:manage')")
+  public SseEmitter streamLetterUpdates(Authentication authentication) {
+    Jwt jwt = (Jwt) authentication.getPrincipal();
+    Collection<String> authorities =
+        authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+
+    return letterUpdateStream.subscribe(
+        jwt.getClaim("userId"), jwt.getClaim("divisionId"), authorities, jwt.getExpiresAt());
+  }
+
   @GetMapping("/letters/{id}")
   @PreAuthorize(
       "hasAnyAuthority('letter:all:read', 'letter:unassigned:read', 'letter:division:read',"
@@ -59,6 +95,26 @@ public class LetterController {
     return ApiResponse.of(letter);
   }
 
+  @GetMapping("/letters/{id}/events")
+  @PreAuthorize(
+      "hasAnyAuthority('letter:all:read', 'letter:unassigned:read', 'letter:division:read',"
+          + " 'letter:own:manage')")
+  public ApiResponse<List<LetterEventDto>> getLetterEvents(
+      @PathVariable Integer id,
+      @RequestParam(required = false) String after,
+      @RequestParam(defaultValue = "20") Integer pageSize,
+      Authentication authentication) {
+    Jwt jwt = (Jwt) authentication.getPrincipal();
+    Collection<String> authorities =
+        authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+
+    int limit = PagingUtil.clampPageSize(pageSize);
+    Window<LetterEventDto> events =
+        letterService.getLetterEvents(
+            id, jwt.getClaim("userId"), jwt.getClaim("divisionId"), authorities, after, limit);
+    return ApiResponse.windowed(events.getContent(), limit, LetterCursor.EVENTS.next(events));
+  }
+
   @PostMapping(value = "/letters", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   @PreAuthorize("hasAuthority('letter:create')")
   public ResponseEntity<ApiResponse<Void>> createLetter(
@@ -0,0 +1,20 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import lk.gov.mohe.adminsystem.util.KeysetCursor;
+import org.springframework.data.domain.Sort;
+
+/** Cursors for the letter list and for a letter's event timeline, both newest first. */
+final class LetterCursor {
+  /** Letters by received date and id. */
+  static final Sort SORT = Sort.by(Sort.Order.desc("receivedDate"), Sort.Order.desc("id"));
+
+  static final KeysetCursor<LocalDate> LETTERS =
+      new KeysetCursor<>("receivedDate", LocalDate::parse);
+
+  /** A letter's events by creation time and id. */
+  static final KeysetCursor<Instant> EVENTS = new KeysetCursor<>("createdAt", Instant::parse);
+
+  private LetterCursor() {}
+}
@@ -25,5 +25,6 @@ public record LetterDto(
     Long noOfAttachments,
     List<AttachmentDto> attachments,
     List<LetterEventDto> events,
+    String eventsCursor,
     String createdAt,
     String updatedAt) {}
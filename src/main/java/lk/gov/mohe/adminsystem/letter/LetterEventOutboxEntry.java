@@ -0,0 +1,55 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/** A letter event waiting in the outbox to be handed to {@link LetterEventRelay}. */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "letter_event_outbox")
+public class LetterEventOutboxEntry {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id", nullable = false)
+  private Long id;
+
+  /** Id of the writing transaction, assigned by the database. */
+  @Column(name = "tx_id", insertable = false, updatable = false)
+  private Long txId;
+
+  @NotNull
+  @Column(name = "letter_event_id", nullable = false)
+  private Integer letterEventId;
+
+  @NotNull
+  @Column(name = "letter_id", nullable = false)
+  private Integer letterId;
+
+  @NotNull
+  @Column(name = "event_type", nullable = false)
+  @Enumerated(EnumType.STRING)
+  @JdbcTypeCode(SqlTypes.NAMED_ENUM)
+  private EventTypeEnum eventType;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  public LetterEventOutboxEntry(LetterEvent letterEvent) {
+    this.letterEventId = letterEvent.getId();
+    this.letterId = letterEvent.getLetter().getId();
+    this.eventType = letterEvent.getEventType();
+  }
+
+  @PrePersist
+  public void onCreate() {
+    createdAt = Instant.now();
+  }
+}
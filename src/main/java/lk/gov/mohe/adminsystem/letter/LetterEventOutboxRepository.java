@@ -0,0 +1,31 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface LetterEventOutboxRepository extends JpaRepository<LetterEventOutboxEntry, Long> {
+  /**
+   * Returns the entries after the given position whose transactions, and every transaction older
+   * than them, have finished. Entries still being written by a running transaction are left for a
+   * later batch rather than skipped.
+   */
+  @Query(
+      value =
+          "SELECT * FROM letter_event_outbox WHERE (tx_id, id) > (:txId, :lastId)"
+              + " AND tx_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint"
+              + " ORDER BY tx_id, id LIMIT :limit",
+      nativeQuery = true)
+  List<LetterEventOutboxEntry> findSettledAfter(long txId, long lastId, int limit);
+
+  /** Removes relayed entries written before the given time. */
+  @Modifying
+  @Query(
+      value =
+          "DELETE FROM letter_event_outbox o USING outbox_offsets f WHERE f.name = :offsetName"
+              + " AND (o.tx_id, o.id) <= (f.tx_id, f.last_id) AND o.created_at < :before",
+      nativeQuery = true)
+  int deleteRelayedBefore(String offsetName, Instant before);
+}
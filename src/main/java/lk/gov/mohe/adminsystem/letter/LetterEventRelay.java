@@ -0,0 +1,89 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Works off the {@code letter_event_outbox}. Each batch is published as one {@link
+ * LetterEventsRelayedEvent}, and the stored offset moves past it in the same transaction, so a
+ * batch whose listeners fail is handed out again on the next run.
+ *
+ * <p>An entry is only relayed once every transaction older than it has finished (the {@code
+ * pg_snapshot_xmin} gate in {@link LetterEventOutboxRepository#findSettledAfter}). Any
+ * long-running write transaction, on any table, therefore holds back every event written after
+ * it started: a {@code createLetter} uploading large attachments stops the relay until it commits.
+ * Only listeners that tolerate that delay belong here; the rest should listen for {@link
+ * LetterChangedEvent} on commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LetterEventRelay {
+  static final String OFFSET_NAME = "letter_events";
+
+  private final LetterEventOutboxRepository outboxRepository;
+  private final OutboxOffsetRepository offsetRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${custom.letters.outbox.batch-size}")
+  private int batchSize;
+
+  @Value("${custom.letters.outbox.retention}")
+  private Duration retention;
+
+  @Scheduled(fixedDelayString = "${custom.letters.outbox.poll-interval}")
+  public void relayPendingEvents() {
+    try {
+      Integer relayed;
+      do {
+        relayed = transactionTemplate.execute(status -> relayBatch());
+      } while (relayed != null && relayed == batchSize);
+    } catch (Exception e) {
+      log.error("Error while relaying letter events", e);
+    }
+  }
+
+  @Scheduled(cron = "${custom.letters.outbox.prune-cron}")
+  public void pruneRelayedEvents() {
+    try {
+      Integer deleted =
+          transactionTemplate.execute(
+              status ->
+                  outboxRepository.deleteRelayedBefore(
+                      OFFSET_NAME, Instant.now().minus(retention)));
+      log.info("Pruned {} relayed letter events", deleted);
+    } catch (Exception e) {
+      log.error("Error while pruning relayed letter events", e);
+    }
+  }
+
+  int relayBatch() {
+    OutboxOffset offset =
+        offsetRepository
+            .findByNameForUpdate(OFFSET_NAME)
+            .orElseThrow(() -> new IllegalStateException("Missing outbox offset " + OFFSET_NAME));
+    List<LetterEventOutboxEntry> entries =
+        outboxRepository.findSettledAfter(offset.getTxId(), offset.getLastId(), batchSize);
+    if (entries.isEmpty()) {
+      return 0;
+    }
+
+    eventPublisher.publishEvent(
+        new LetterEventsRelayedEvent(entries.stream().map(RelayedLetterEvent::of).toList()));
+
+    LetterEventOutboxEntry last = entries.getLast();
+    offset.setTxId(last.getTxId());
+    offset.setLastId(last.getId());
+    offset.setUpdatedAt(Instant.now());
+    return entries.size();
+  }
+}
@@ -1,10 +1,16 @@
 package lk.gov.mohe.adminsystem.letter;
 
-import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface LetterEventRepository extends JpaRepository<LetterEvent, Integer> {
-  List<LetterEvent> findByLetterIdOrderByCreatedAtDesc(Integer id);
+  // Backed by idx_letter_events_letter_created_at_id (see V10)
+  @EntityGraph(attributePaths = {"user.role", "user.division"})
+  Window<LetterEvent> findByLetterIdOrderByCreatedAtDescIdDesc(
+      Integer letterId, ScrollPosition position, Limit limit);
 
   long countByUserId(Integer userId);
 }
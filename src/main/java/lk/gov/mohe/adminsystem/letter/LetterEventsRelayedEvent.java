@@ -0,0 +1,10 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import java.util.List;
+
+/**
+ * A batch of committed letter events, in the order they were written. Delivery is at least once:
+ * listeners run inside the relay's transaction, and a batch is handed out again when one of them
+ * throws, so they should use {@code @EventListener} and tolerate seeing an event twice.
+ */
+public record LetterEventsRelayedEvent(List<RelayedLetterEvent> events) {}
@@ -21,8 +21,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 public abstract class LetterMapper {
   @Autowired protected AttachmentMapper attachmentMapper;
   @Autowired protected DivisionMapper divisionMapper;
-  @Autowired protected AttachmentRepository attachmentRepository;
-  ParentTypeEnum letterParentType = ParentTypeEnum.LETTER;
   @Autowired private UserMapper userMapper;
 
   @Mapping(target = "id", ignore = true)
@@ -33,6 +31,7 @@ public abstract class LetterMapper {
   @Mapping(target = "createdAt", ignore = true)
   @Mapping(target = "updatedAt", ignore = true)
   @Mapping(target = "deletedAt", ignore = true)
+  @Mapping(target = "searchScore", ignore = true)
   abstract Letter toEntity(CreateOrUpdateLetterRequestDto request);
 
   @Mapping(target = "id", ignore = true)
@@ -43,17 +42,18 @@ public abstract class LetterMapper {
   @Mapping(target = "createdAt", ignore = true)
   @Mapping(target = "updatedAt", ignore = true)
   @Mapping(target = "deletedAt", ignore = true)
+  @Mapping(target = "searchScore", ignore = true)
   abstract void updateEntityFromCreateOrUpdateLetterRequestDto(
       CreateOrUpdateLetterRequestDto request, @MappingTarget Letter letter);
 
-  @Mapping(target = "assignedUser", source = "assignedUser", qualifiedByName = "toUserDtoMin")
   @Mapping(
-      target = "noOfAttachments",
-      expression =
-          "java( attachmentRepository.countByParentIdAndParentType(letter.getId(), letterParentType) )")
+      target = "assignedUser",
+      source = "letter.assignedUser",
+      qualifiedByName = "toUserDtoMin")
   @Mapping(target = "attachments", ignore = true)
   @Mapping(target = "events", ignore = true)
-  abstract LetterDto toLetterDtoMin(Letter letter);
+  @Mapping(target = "eventsCursor", ignore = true)
+  abstract LetterDto toLetterDtoMin(Letter letter, Long noOfAttachments);
 
   @Mapping(
       target = "assignedUser",
@@ -61,7 +61,7 @@ public abstract class LetterMapper {
       qualifiedByName = "toUserDtoMin")
   @Mapping(target = "noOfAttachments", ignore = true)
   abstract LetterDto toLetterDtoFull(
-      Letter letter, List<Attachment> attachments, List<LetterEvent> events);
+      Letter letter, List<Attachment> attachments, List<LetterEvent> events, String eventsCursor);
 
   SenderDetailsDto toSenderDetailsDto(Map<String, Object> senderDetails) {
     return new SenderDetailsDto(
@@ -1,8 +1,13 @@
 package lk.gov.mohe.adminsystem.letter;
 
 import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 public interface LetterRepository
@@ -10,58 +15,77 @@ public interface LetterRepository
 
   boolean existsLetterByReference(String reference);
 
-  @Query("SELECT COUNT(l) FROM Letter l WHERE l.assignedDivision IS NULL")
-  long countUnassignedLetters();
+  // List pages map the assigned division and user (with their role and division) for every row
+  String[] LIST_ATTRIBUTE_PATHS = {"assignedDivision", "assignedUser.role", "assignedUser.division"};
 
-  @Query("SELECT l.status, COUNT(l) FROM Letter l GROUP BY l.status")
-  List<Object[]> countByStatus();
+  @EntityGraph(attributePaths = {"assignedDivision", "assignedUser.role", "assignedUser.division"})
+  @Override
+  Page<Letter> findAll(Specification<Letter> spec, Pageable pageable);
 
-  @Query("SELECT l.priority, COUNT(l) FROM Letter l GROUP BY l.priority")
-  List<Object[]> countByPriority();
-
-  @Query(
-      "SELECT COALESCE(d.name, 'Unassigned'), COUNT(l) FROM Letter l LEFT JOIN l.assignedDivision"
-          + " d GROUP BY d.name")
-  List<Object[]> countByDivision();
-
-  // Division scope methods
-  @Query("SELECT COUNT(l) FROM Letter l WHERE l.assignedDivision.id = :divisionId")
-  long countByAssignedDivisionId(Integer divisionId);
-
-  @Query(
-      "SELECT l.status, COUNT(l) FROM Letter l WHERE l.assignedDivision.id = :divisionId GROUP BY"
-          + " l.status")
-  List<Object[]> countByStatusAndDivisionId(Integer divisionId);
+  @Query("SELECT COUNT(l) FROM Letter l WHERE l.assignedUser.id = :userId")
+  long countActiveLettersByUserId(Integer userId);
 
+  /**
+   * Counts a user's letters per status, per priority and in total in one statement. Both columns
+   * are NOT NULL, so a null marks the grouping: per-status rows have a null priority, per-priority
+   * rows a null status and the total row has both null.
+   */
   @Query(
-      "SELECT l.priority, COUNT(l) FROM Letter l WHERE l.assignedDivision.id = :divisionId GROUP"
-          + " BY l.priority")
-  List<Object[]> countByPriorityAndDivisionId(Integer divisionId);
-
-  // Unassigned scope methods
+      value =
+          """
+          SELECT CAST(status AS text), CAST(priority AS text), COUNT(*)
+          FROM letters
+          WHERE assigned_user_id = :userId
+          GROUP BY GROUPING SETS ((status), (priority), ())
+          """,
+      nativeQuery = true)
+  List<Object[]> countGroupedByAssignedUserId(Integer userId);
+
+  // Materialized counts, see LetterStatsService
   @Query(
-      "SELECT l.status, COUNT(l) FROM Letter l WHERE l.assignedDivision IS NULL GROUP BY l.status")
-  List<Object[]> countUnassignedByStatus();
+      value =
+          "SELECT CAST(status AS text), CAST(priority AS text), division_id, letter_count"
+              + " FROM letter_stats",
+      nativeQuery = true)
+  List<Object[]> findLetterStats();
 
   @Query(
-      "SELECT l.priority, COUNT(l) FROM Letter l WHERE l.assignedDivision IS NULL GROUP BY"
-          + " l.priority")
-  List<Object[]> countUnassignedByPriority();
-
-  // Own letters scope methods
-  @Query("SELECT COUNT(l) FROM Letter l WHERE l.assignedUser.id = :userId")
-  long countByAssignedUserId(Integer userId);
-
-  @Query("SELECT COUNT(l) FROM Letter l WHERE l.assignedUser.id = :userId")
-  long countActiveLettersByUserId(Integer userId);
+      value =
+          "SELECT CAST(status AS text), CAST(priority AS text), division_id, letter_count"
+              + " FROM letter_stats WHERE division_id = :divisionId",
+      nativeQuery = true)
+  List<Object[]> findLetterStatsByDivisionId(int divisionId);
 
+  @Modifying
   @Query(
-      "SELECT l.status, COUNT(l) FROM Letter l WHERE l.assignedUser.id = :userId GROUP BY"
-          + " l.status")
-  List<Object[]> countByStatusAndUserId(Integer userId);
-
+      value =
+          """
+          INSERT INTO letter_stats (status, priority, division_id, letter_count)
+          VALUES (CAST(:status AS letter_status_enum), CAST(:priority AS priority_enum), :divisionId, :delta)
+          ON CONFLICT (status, priority, division_id)
+              DO UPDATE SET letter_count = letter_stats.letter_count + EXCLUDED.letter_count
+          """,
+      nativeQuery = true)
+  void addToLetterStats(String status, String priority, int divisionId, long delta);
+
+  /** Blocks concurrent increments until the transaction ends, so a rebuild cannot miss one. */
+  @Modifying
+  @Query(value = "LOCK TABLE letter_stats IN EXCLUSIVE MODE", nativeQuery = true)
+  void lockLetterStats();
+
+  @Modifying
+  @Query(value = "DELETE FROM letter_stats", nativeQuery = true)
+  void clearLetterStats();
+
+  @Modifying
   @Query(
-      "SELECT l.priority, COUNT(l) FROM Letter l WHERE l.assignedUser.id = :userId GROUP BY"
-          + " l.priority")
-  List<Object[]> countByPriorityAndUserId(Integer userId);
+      value =
+          """
+          INSERT INTO letter_stats (status, priority, division_id, letter_count)
+          SELECT status, priority, COALESCE(assigned_division_id, 0), COUNT(*)
+          FROM letters
+          GROUP BY status, priority, COALESCE(assigned_division_id, 0)
+          """,
+      nativeQuery = true)
+  void rebuildLetterStats();
 }
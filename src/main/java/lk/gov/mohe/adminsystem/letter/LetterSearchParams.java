@@ -1,6 +1,7 @@
 package lk.gov.mohe.adminsystem.letter;
 
 import java.time.LocalDate;
+import lk.gov.mohe.adminsystem.util.CountMode;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -37,4 +38,9 @@ public class LetterSearchParams {
 
   private Integer page = 0;
   private Integer pageSize = 10;
+  private CountMode count = CountMode.EXACT;
+
+  // Cursor mode: set cursor=true for the first page, then pass back nextCursor as after
+  private Boolean cursor = false;
+  private String after;
 }
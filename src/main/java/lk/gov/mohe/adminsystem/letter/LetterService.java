@@ -8,23 +8,35 @@ import java.time.LocalDate;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import lk.gov.mohe.adminsystem.attachment.Attachment;
 import lk.gov.mohe.adminsystem.attachment.AttachmentParent;
 import lk.gov.mohe.adminsystem.attachment.AttachmentRepository;
+import lk.gov.mohe.adminsystem.attachment.AttachmentsSavedEvent;
 import lk.gov.mohe.adminsystem.attachment.ParentTypeEnum;
+import lk.gov.mohe.adminsystem.attachment.UploadedObject;
 import lk.gov.mohe.adminsystem.division.Division;
 import lk.gov.mohe.adminsystem.division.DivisionRepository;
 import lk.gov.mohe.adminsystem.security.CurrentUserProvider;
 import lk.gov.mohe.adminsystem.storage.MinioStorageService;
 import lk.gov.mohe.adminsystem.user.User;
 import lk.gov.mohe.adminsystem.user.UserRepository;
+import lk.gov.mohe.adminsystem.util.CountMode;
+import lk.gov.mohe.adminsystem.util.PagingUtil;
+import lk.gov.mohe.adminsystem.util.RowCountEstimator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -45,39 +57,86 @@ public class LetterService {
   private final LetterMapper letterMapper;
   private final MinioStorageService storageService;
   private final CurrentUserProvider currentUserProvider;
+  private final RowCountEstimator rowCountEstimator;
+  private final ApplicationEventPublisher eventPublisher;
+  private final LetterStatsService letterStatsService;
+  private final LetterEventOutboxRepository letterEventOutboxRepository;
 
   @Value("${custom.attachments.accepted-mime-types}")
   private final Set<String> acceptedMimeTypes;
 
+  @Value("${custom.letters.embedded-event-count}")
+  private int embeddedEventCount;
+
   @Transactional(readOnly = true)
-  public Page<LetterDto> getAccessibleLetters(
+  public Slice<LetterDto> getAccessibleLetters(
       Integer userId,
       Integer divisionId,
       Collection<String> authorities,
       LetterSearchParams filters,
       Integer page,
-      Integer pageSize) {
-    Pageable pageable = PageRequest.of(page, pageSize);
+      Integer pageSize,
+      CountMode countMode) {
+    Pageable pageable = PageRequest.of(page, pageSize, buildSort(filters));
     Specification<Letter> filterSpec = buildFilterSpec(filters);
 
     if (authorities.contains("letter:all:read")) {
-      return findLetters(filterSpec, pageable);
+      return findLetters(filterSpec, pageable, countMode);
     }
 
     Specification<Letter> scopeSpec = buildScopeSpec(authorities, divisionId, userId);
 
     if (scopeSpec == null) {
-      // No permitted scope matched: return empty page to avoid unintended full
-      // access
-      log.warn(
-          "User [{}] with authorities {} attempted to access letters with no permitted scope.",
-          userId,
-          authorities);
+      logNoPermittedScope(userId, authorities);
       return Page.empty(pageable);
     }
 
     Specification<Letter> finalSpec = andSpec(scopeSpec, filterSpec);
-    return findLetters(finalSpec, pageable);
+    return findLetters(finalSpec, pageable, countMode);
+  }
+
+  @Transactional(readOnly = true)
+  public Window<LetterDto> scrollAccessibleLetters(
+      Integer userId,
+      Integer divisionId,
+      Collection<String> authorities,
+      LetterSearchParams filters,
+      String after,
+      Integer pageSize) {
+    ScrollPosition position =
+        StringUtils.hasText(after) ? LetterCursor.LETTERS.decode(after) : ScrollPosition.keyset();
+    Specification<Letter> filterSpec = buildFilterSpec(filters);
+
+    if (authorities.contains("letter:all:read")) {
+      return scrollLetters(filterSpec, position, pageSize);
+    }
+
+    Specification<Letter> scopeSpec = buildScopeSpec(authorities, divisionId, userId);
+
+    if (scopeSpec == null) {
+      logNoPermittedScope(userId, authorities);
+      return Window.from(List.of(), ScrollPosition::offset);
+    }
+
+    return scrollLetters(andSpec(scopeSpec, filterSpec), position, pageSize);
+  }
+
+  private void logNoPermittedScope(Integer userId, Collection<String> authorities) {
+    // No permitted scope matched: return empty page to avoid unintended full
+    // access
+    log.warn(
+        "User [{}] with authorities {} attempted to access letters with no permitted scope.",
+        userId,
+        authorities);
+  }
+
+  private Sort buildSort(LetterSearchParams filters) {
+    if (filters == null || !StringUtils.hasText(filters.getQuery())) {
+      return Sort.unsorted();
+    }
+    // Rank full-text matches by relevance, newest first among equal scores. Keyset scrolling
+    // keeps its own order
+    return Sort.by(Sort.Order.desc("searchScore")).and(LetterCursor.SORT);
   }
 
   private Specification<Letter> buildFilterSpec(LetterSearchParams filters) {
@@ -141,13 +200,55 @@ public class LetterService {
     return spec;
   }
 
-  private Page<LetterDto> findLetters(Specification<Letter> spec, Pageable pageable) {
-    Page<Letter> letters =
-        (spec == null)
-            ? letterRepository.findAll(pageable)
-            : letterRepository.findAll(spec, pageable);
+  private Slice<LetterDto> findLetters(
+      Specification<Letter> spec, Pageable pageable, CountMode countMode) {
+    Slice<Letter> letters =
+        PagingUtil.findAll(
+            letterRepository,
+            spec,
+            pageable,
+            countMode,
+            () -> rowCountEstimator.estimate(Letter.class),
+            LetterRepository.LIST_ATTRIBUTE_PATHS);
+
+    Map<Integer, Long> attachmentCounts = countAttachments(letters.getContent());
+    return letters.map(
+        letter ->
+            letterMapper.toLetterDtoMin(
+                letter, attachmentCounts.getOrDefault(letter.getId(), 0L)));
+  }
+
+  private Window<LetterDto> scrollLetters(
+      Specification<Letter> spec, ScrollPosition position, int pageSize) {
+    Specification<Letter> finalSpec = (spec == null) ? (root, query, cb) -> cb.conjunction() : spec;
+    Window<Letter> letters =
+        letterRepository.findBy(
+            finalSpec,
+            q ->
+                q.sortBy(LetterCursor.SORT)
+                    .limit(pageSize)
+                    .project(LetterRepository.LIST_ATTRIBUTE_PATHS)
+                    .scroll(position));
+
+    Map<Integer, Long> attachmentCounts = countAttachments(letters.getContent());
+    return letters.map(
+        letter ->
+            letterMapper.toLetterDtoMin(
+                letter, attachmentCounts.getOrDefault(letter.getId(), 0L)));
+  }
 
-    return letters.map(letterMapper::toLetterDtoMin);
+  private Map<Integer, Long> countAttachments(List<Letter> letters) {
+    if (letters.isEmpty()) {
+      return Map.of();
+    }
+
+    List<Integer> letterIds = letters.stream().map(Letter::getId).toList();
+    Map<Integer, Long> letterIdToCountMap = new HashMap<>();
+    for (Object[] row :
+        attachmentRepository.countByParentTypeAndParentIdIn(ParentTypeEnum.LETTER, letterIds)) {
+      letterIdToCountMap.put((Integer) row[0], (Long) row[1]);
+    }
+    return letterIdToCountMap;
   }
 
   private Specification<Letter> withText(
@@ -188,6 +289,61 @@ public class LetterService {
   @Transactional(readOnly = true)
   public LetterDto getLetterById(
       Integer id, Integer userId, Integer divisionId, Collection<String> authorities) {
+    Letter letter = findReadableLetter(id, userId, divisionId, authorities);
+
+    List<Attachment> attachments =
+        attachmentRepository.findByParentTypeAndParentId(ParentTypeEnum.LETTER, letter.getId());
+    Window<LetterEvent> events =
+        letterEventRepository.findByLetterIdOrderByCreatedAtDescIdDesc(
+            letter.getId(), ScrollPosition.keyset(), Limit.of(embeddedEventCount));
+    populateEventDetails(events.getContent());
+
+    return letterMapper.toLetterDtoFull(
+        letter, attachments, events.getContent(), LetterCursor.EVENTS.next(events));
+  }
+
+  @Transactional(readOnly = true)
+  public Window<LetterEventDto> getLetterEvents(
+      Integer id,
+      Integer userId,
+      Integer divisionId,
+      Collection<String> authorities,
+      String after,
+      Integer pageSize) {
+    ScrollPosition position =
+        StringUtils.hasText(after) ? LetterCursor.EVENTS.decode(after) : ScrollPosition.keyset();
+    Letter letter = findReadableLetter(id, userId, divisionId, authorities);
+
+    Window<LetterEvent> events =
+        letterEventRepository.findByLetterIdOrderByCreatedAtDescIdDesc(
+            letter.getId(), position, Limit.of(pageSize));
+    populateEventDetails(events.getContent());
+    return events.map(letterMapper::toLetterEventDto);
+  }
+
+  /**
+   * Checks that the caller may read the letter a letter event belongs to. Used to authorize
+   * access to event attachments.
+   */
+  @Transactional(readOnly = true)
+  public void checkLetterEventReadable(
+      Integer eventId, Integer userId, Integer divisionId, Collection<String> authorities) {
+    LetterEvent event =
+        letterEventRepository
+            .findById(eventId)
+            .orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Letter event not found"));
+    findReadableLetter(event.getLetter().getId(), userId, divisionId, authorities);
+  }
+
+  @Transactional(readOnly = true)
+  public void checkLetterReadable(
+      Integer id, Integer userId, Integer divisionId, Collection<String> authorities) {
+    findReadableLetter(id, userId, divisionId, authorities);
+  }
+
+  private Letter findReadableLetter(
+      Integer id, Integer userId, Integer divisionId, Collection<String> authorities) {
     Letter letter =
         letterRepository
             .findById(id)
@@ -198,20 +354,7 @@ public class LetterService {
       throw new ResponseStatusException(
           HttpStatus.FORBIDDEN, "You do not have permission to access this letter");
     }
-
-    List<Attachment> attachments =
-        attachmentRepository.findByParentTypeAndParentId(ParentTypeEnum.LETTER, letter.getId());
-    List<LetterEvent> events =
-        letterEventRepository.findByLetterIdOrderByCreatedAtDesc(letter.getId());
-    events.forEach(
-        event -> {
-          Map<String, Object> details = event.getEventDetails();
-          if (details != null) {
-            event.setEventDetails(populateEventDetails(details));
-          }
-        });
-
-    return letterMapper.toLetterDtoFull(letter, attachments, events);
+    return letter;
   }
 
   @Transactional
@@ -229,6 +372,8 @@ public class LetterService {
     Map<String, Object> eventDetails = Map.of("newStatus", savedLetter.getStatus().toString());
     createLetterEvent(savedLetter, EventTypeEnum.CHANGE_STATUS, eventDetails);
 
+    // Last, so the letter_stats row shared by every new letter is not locked during the uploads
+    recordLetterChange(null, savedLetter);
     return savedLetter;
   }
 
@@ -326,8 +471,10 @@ public class LetterService {
       changedDetails.put("priority", request.priority());
     }
 
+    LetterSnapshot before = LetterSnapshot.of(letter);
     letterMapper.updateEntityFromCreateOrUpdateLetterRequestDto(request, letter);
     letterRepository.save(letter);
+    recordLetterChange(before, letter);
 
     // Only create event if there are changes
     if (!changedDetails.isEmpty()) {
@@ -354,10 +501,12 @@ public class LetterService {
             .orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Division not found"));
 
+    LetterSnapshot before = LetterSnapshot.of(letter);
     letter.setStatus(StatusEnum.ASSIGNED_TO_DIVISION);
     letter.setAssignedDivision(division);
     letter.setAssignedUser(null);
     letterRepository.save(letter);
+    recordLetterChange(before, letter);
 
     Map<String, Object> eventDetails =
         Map.of("newStatus", StatusEnum.ASSIGNED_TO_DIVISION, "divisionId", divisionId);
@@ -393,9 +542,11 @@ public class LetterService {
           HttpStatus.BAD_REQUEST, "User must belong to the division assigned to the letter");
     }
 
+    LetterSnapshot before = LetterSnapshot.of(letter);
     letter.setStatus(StatusEnum.PENDING_ACCEPTANCE);
     letter.setAssignedUser(user);
     letterRepository.save(letter);
+    recordLetterChange(before, letter);
 
     Map<String, Object> eventDetails =
         Map.of("newStatus", StatusEnum.PENDING_ACCEPTANCE, "userId", userId);
@@ -417,9 +568,11 @@ public class LetterService {
       throw new ResponseStatusException(
           HttpStatus.FORBIDDEN, "You can only return letters assigned to you");
     }
+    LetterSnapshot before = LetterSnapshot.of(letter);
     letter.setStatus(StatusEnum.RETURNED_FROM_OFFICER);
     letter.setAssignedUser(null);
     letterRepository.save(letter);
+    recordLetterChange(before, letter);
     Map<String, Object> eventDetails =
         Map.of(
             "newStatus",
@@ -455,9 +608,11 @@ public class LetterService {
           HttpStatus.FORBIDDEN, "You can only unassign letters from your own division");
     }
 
+    LetterSnapshot before = LetterSnapshot.of(letter);
     letter.setStatus(StatusEnum.RETURNED_FROM_DIVISION);
     letter.setAssignedDivision(null);
     letterRepository.save(letter);
+    recordLetterChange(before, letter);
 
     Map<String, Object> eventDetails =
         Map.of(
@@ -545,9 +700,11 @@ public class LetterService {
           HttpStatus.BAD_REQUEST, "Letter must be in pending acceptance status to be accepted");
     }
 
+    LetterSnapshot before = LetterSnapshot.of(letter);
     letter.setStatus(StatusEnum.ASSIGNED_TO_OFFICER);
     letter.setIsAcceptedByUser(true);
     letterRepository.save(letter);
+    recordLetterChange(before, letter);
 
     Map<String, Object> eventDetails = Map.of("newStatus", StatusEnum.ASSIGNED_TO_OFFICER);
     createLetterEvent(letter, EventTypeEnum.CHANGE_STATUS, eventDetails);
@@ -560,29 +717,68 @@ public class LetterService {
       Integer userId,
       Integer divisionId,
       Collection<String> authorities) {
-    Letter letter =
-        letterRepository
-            .findById(letterId)
-            .orElseThrow(
-                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Letter not found"));
-
-    if (!hasAccessToLetter(letter, userId, divisionId, authorities, "add:attachments")) {
-      throw new ResponseStatusException(
-          HttpStatus.FORBIDDEN, "You do not have permission to add an attachment to this letter");
-    }
+    Letter letter = findLetterForNewAttachments(letterId, userId, divisionId, authorities);
     if (attachments == null || attachments.length == 0) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Attachments field is required");
     }
+    addAttachmentEvent(letter, letterEvent -> saveAttachments(letterEvent, attachments));
+  }
 
-    Map<String, Object> eventDetails = new HashMap<>();
+  /** Records objects uploaded directly to storage as a new attachment event on the letter. */
+  @Transactional
+  public List<Integer> addUploadedAttachments(
+      Integer letterId,
+      List<UploadedObject> uploads,
+      Integer userId,
+      Integer divisionId,
+      Collection<String> authorities) {
+    Letter letter = findLetterForNewAttachments(letterId, userId, divisionId, authorities);
+    return addAttachmentEvent(letter, letterEvent -> persistAttachments(letterEvent, uploads));
+  }
 
-    LetterEvent letterEvent = createLetterEvent(letter, EventTypeEnum.ADD_ATTACHMENT, eventDetails);
+  /**
+   * Adds objects uploaded directly to storage to a note or reply, so a client can post the text
+   * first and attach large files afterwards. Only the author of the event may do this.
+   */
+  @Transactional
+  public List<Integer> addUploadedAttachmentsToEvent(
+      Integer eventId,
+      List<UploadedObject> uploads,
+      Integer userId,
+      Integer divisionId,
+      Collection<String> authorities) {
+    LetterEvent letterEvent =
+        letterEventRepository
+            .findById(eventId)
+            .orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Letter event not found"));
 
-    List<Attachment> savedAttachments = saveAttachments(letterEvent, attachments);
-    List<Integer> attachmentIds = savedAttachments.stream().map(Attachment::getId).toList();
+    if (letterEvent.getEventType() != EventTypeEnum.ADD_NOTE
+        && letterEvent.getEventType() != EventTypeEnum.REPLY) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "Attachments can only be added to notes and replies");
+    }
+    if (!letterEvent.getUser().getId().equals(userId)
+        || !hasAccessToLetter(
+            letterEvent.getLetter(), userId, divisionId, authorities, "add:attachments")) {
+      throw new ResponseStatusException(
+          HttpStatus.FORBIDDEN, "You do not have permission to add an attachment to this event");
+    }
+
+    List<Attachment> savedAttachments = persistAttachments(letterEvent, uploads);
+    Map<String, Object> eventDetails =
+        letterEvent.getEventDetails() != null
+            ? new HashMap<>(letterEvent.getEventDetails())
+            : new HashMap<>();
+    List<Integer> attachmentIds = new ArrayList<>();
+    if (eventDetails.get("attachmentIds") instanceof List<?> existingIds) {
+      existingIds.forEach(id -> attachmentIds.add(((Number) id).intValue()));
+    }
+    savedAttachments.forEach(attachment -> attachmentIds.add(attachment.getId()));
     eventDetails.put("attachmentIds", attachmentIds);
     letterEvent.setEventDetails(eventDetails);
     letterEventRepository.save(letterEvent);
+    return savedAttachments.stream().map(Attachment::getId).toList();
   }
 
   @Transactional
@@ -599,8 +795,10 @@ public class LetterService {
           HttpStatus.FORBIDDEN, "You do not have permission to mark this letter as complete");
     }
 
+    LetterSnapshot before = LetterSnapshot.of(letter);
     letter.setStatus(StatusEnum.CLOSED);
     letterRepository.save(letter);
+    recordLetterChange(before, letter);
 
     Map<String, Object> eventDetails = Map.of("newStatus", StatusEnum.CLOSED, "userId", userId);
     createLetterEvent(letter, EventTypeEnum.CHANGE_STATUS, eventDetails);
@@ -657,11 +855,13 @@ public class LetterService {
       return;
     }
 
+    LetterSnapshot before = LetterSnapshot.of(letter);
     letter.setStatus(newStatus);
     if (newStatus == StatusEnum.PENDING_ACCEPTANCE) {
       letter.setIsAcceptedByUser(null);
     }
     letterRepository.save(letter);
+    recordLetterChange(before, letter);
 
     Map<String, Object> eventDetails =
         Map.of("newStatus", newStatus, "previousStatus", StatusEnum.CLOSED);
@@ -691,55 +891,112 @@ public class LetterService {
     }
     PriorityEnum previousPriority = letter.getPriority();
 
+    LetterSnapshot before = LetterSnapshot.of(letter);
     letter.setPriority(newPriority);
     letterRepository.save(letter);
+    recordLetterChange(before, letter);
 
     Map<String, Object> eventDetails =
         Map.of("newPriority", newPriority, "previousPriority", previousPriority);
     createLetterEvent(letter, EventTypeEnum.CHANGE_PRIORITY, eventDetails);
   }
 
+  /**
+   * Moves the letter between materialized counts and publishes a {@link LetterChangedEvent}, when
+   * the change affects its status, priority or assignment.
+   */
+  private void recordLetterChange(LetterSnapshot before, Letter letter) {
+    LetterSnapshot after = LetterSnapshot.of(letter);
+    if (after.equals(before)) {
+      return;
+    }
+    letterStatsService.recordChange(before != null ? before.stats() : null, after.stats());
+    eventPublisher.publishEvent(new LetterChangedEvent(letter.getId(), before, after));
+  }
+
   private LetterEvent createLetterEvent(
       Letter letter, EventTypeEnum eventType, Map<String, Object> eventDetails) {
     LetterEvent letterEvent = new LetterEvent();
     letterEvent.setLetter(letter);
 
-    User user = currentUserProvider.getCurrentUserOrThrow();
-    letterEvent.setUser(user);
+    letterEvent.setUser(currentUserProvider.getCurrentUserReference());
 
     letterEvent.setEventType(eventType);
     letterEvent.setEventDetails(eventDetails);
-    return letterEventRepository.save(letterEvent);
+    LetterEvent savedEvent = letterEventRepository.save(letterEvent);
+    letterEventOutboxRepository.save(new LetterEventOutboxEntry(savedEvent));
+    return savedEvent;
+  }
+
+  private Letter findLetterForNewAttachments(
+      Integer letterId, Integer userId, Integer divisionId, Collection<String> authorities) {
+    Letter letter =
+        letterRepository
+            .findById(letterId)
+            .orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Letter not found"));
+
+    if (!hasAccessToLetter(letter, userId, divisionId, authorities, "add:attachments")) {
+      throw new ResponseStatusException(
+          HttpStatus.FORBIDDEN, "You do not have permission to add an attachment to this letter");
+    }
+    return letter;
+  }
+
+  private List<Integer> addAttachmentEvent(
+      Letter letter, Function<LetterEvent, List<Attachment>> saveAttachments) {
+    Map<String, Object> eventDetails = new HashMap<>();
+
+    LetterEvent letterEvent = createLetterEvent(letter, EventTypeEnum.ADD_ATTACHMENT, eventDetails);
+
+    List<Attachment> savedAttachments = saveAttachments.apply(letterEvent);
+    List<Integer> attachmentIds = savedAttachments.stream().map(Attachment::getId).toList();
+    eventDetails.put("attachmentIds", attachmentIds);
+    letterEvent.setEventDetails(eventDetails);
+    letterEventRepository.save(letterEvent);
+    return attachmentIds;
   }
 
   private List<Attachment> saveAttachments(AttachmentParent parent, MultipartFile[] files) {
-    List<Attachment> attachmentList = new ArrayList<>();
-    if (files != null) {
-      for (MultipartFile file : files) {
-        if (file.isEmpty()) {
-          throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "One of the files is empty");
-        }
-        if (!acceptedMimeTypes.contains(file.getContentType())) {
-          throw new ResponseStatusException(
-              HttpStatus.UNSUPPORTED_MEDIA_TYPE,
-              "Attachment type " + file.getContentType() + " is not supported");
-        }
-        Attachment attachment = new Attachment();
-        attachment.setFileName(file.getOriginalFilename());
-        String folder =
-            switch (parent.getType()) {
-              case ParentTypeEnum.LETTER -> "letters";
-              case ParentTypeEnum.LETTER_EVENT -> "events";
-              case ParentTypeEnum.CABINET_PAPER -> "cabinet-papers";
-            };
-        String objectName = storageService.upload(folder, file);
-        attachment.setFilePath(objectName);
-        attachment.setFileType(file.getContentType());
-        attachment.attachToParent(parent);
-        attachment = attachmentRepository.save(attachment);
-        attachmentList.add(attachment);
+    if (files == null || files.length == 0) {
+      return new ArrayList<>();
+    }
+    for (MultipartFile file : files) {
+      if (file.isEmpty()) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "One of the files is empty");
+      }
+      if (!acceptedMimeTypes.contains(file.getContentType())) {
+        throw new ResponseStatusException(
+            HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+            "Attachment type " + file.getContentType() + " is not supported");
       }
     }
+    // Rows are only written once every object is in storage
+    List<String> objectNames = storageService.uploadAll(Arrays.asList(files));
+
+    List<UploadedObject> uploads = new ArrayList<>(files.length);
+    for (int i = 0; i < files.length; i++) {
+      uploads.add(
+          new UploadedObject(
+              objectNames.get(i), files[i].getOriginalFilename(), files[i].getContentType()));
+    }
+    return persistAttachments(parent, uploads);
+  }
+
+  private List<Attachment> persistAttachments(
+      AttachmentParent parent, List<UploadedObject> uploads) {
+    List<Attachment> attachments = new ArrayList<>(uploads.size());
+    for (UploadedObject upload : uploads) {
+      Attachment attachment = new Attachment();
+      attachment.setFileName(upload.fileName());
+      attachment.setFilePath(upload.objectName());
+      attachment.setFileType(upload.contentType());
+      attachment.attachToParent(parent);
+      attachments.add(attachment);
+    }
+    List<Attachment> attachmentList = attachmentRepository.saveAll(attachments);
+    eventPublisher.publishEvent(
+        new AttachmentsSavedEvent(attachmentList.stream().map(Attachment::getId).toList()));
     return attachmentList;
   }
 
@@ -765,35 +1022,82 @@ public class LetterService {
     return hasAllAccess || hasUnassignedAccess || hasDivisionAccess || hasOwnAccess;
   }
 
-  private Map<String, Object> populateEventDetails(Map<String, Object> eventDetails) {
+  // Resolves the ids stored in event details with one query per referenced entity type
+  private void populateEventDetails(List<LetterEvent> events) {
+    Set<Integer> attachmentIds = new HashSet<>();
+    Set<Integer> divisionIds = new HashSet<>();
+    Set<Integer> userIds = new HashSet<>();
+    for (LetterEvent event : events) {
+      Map<String, Object> details = event.getEventDetails();
+      if (details == null) {
+        continue;
+      }
+      if (details.get("attachmentIds") instanceof List<?> ids) {
+        ids.forEach(attachmentId -> attachmentIds.add((Integer) attachmentId));
+      }
+      if (details.get("divisionId") instanceof Integer divisionId) {
+        divisionIds.add(divisionId);
+      }
+      if (details.get("userId") instanceof Integer detailsUserId) {
+        userIds.add(detailsUserId);
+      }
+    }
+
+    Map<Integer, Attachment> attachments =
+        attachmentIds.isEmpty()
+            ? Map.of()
+            : attachmentRepository.findAllById(attachmentIds).stream()
+                .collect(Collectors.toMap(Attachment::getId, Function.identity()));
+    Map<Integer, Division> divisions =
+        divisionIds.isEmpty()
+            ? Map.of()
+            : divisionRepository.findAllById(divisionIds).stream()
+                .collect(
+                    Collectors.toMap(
+                        Division::getId,
+                        division -> Hibernate.unproxy(division, Division.class)));
+    Map<Integer, User> users =
+        userIds.isEmpty()
+            ? Map.of()
+            : userRepository.findAllByIdIn(userIds).stream()
+                .collect(
+                    Collectors.toMap(User::getId, user -> Hibernate.unproxy(user, User.class)));
+
+    for (LetterEvent event : events) {
+      Map<String, Object> details = event.getEventDetails();
+      if (details != null) {
+        event.setEventDetails(populateEventDetails(details, attachments, divisions, users));
+      }
+    }
+  }
+
+  private Map<String, Object> populateEventDetails(
+      Map<String, Object> eventDetails,
+      Map<Integer, Attachment> attachments,
+      Map<Integer, Division> divisions,
+      Map<Integer, User> users) {
     Map<String, Object> eventDetailsMap = new HashMap<>();
     for (Map.Entry<String, Object> entry : eventDetails.entrySet()) {
       switch (entry.getKey()) {
         case "attachmentIds" -> {
           @SuppressWarnings("unchecked")
           List<Integer> attachmentIds = (List<Integer>) entry.getValue();
-          List<Attachment> attachments = attachmentRepository.findAllById(attachmentIds);
-          eventDetailsMap.put("attachments", attachments);
+          eventDetailsMap.put(
+              "attachments",
+              attachmentIds.stream().map(attachments::get).filter(Objects::nonNull).toList());
         }
         case "divisionId" -> {
-          Integer divisionId = (Integer) entry.getValue();
-          Division division =
-              divisionRepository
-                  .findById(divisionId)
-                  .orElseThrow(
-                      () ->
-                          new ResponseStatusException(HttpStatus.NOT_FOUND, "Division not found"));
-          division = Hibernate.unproxy(division, Division.class);
+          Division division = divisions.get((Integer) entry.getValue());
+          if (division == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Division not found");
+          }
           eventDetailsMap.put("division", division);
         }
         case "userId" -> {
-          Integer userId = (Integer) entry.getValue();
-          User user =
-              userRepository
-                  .findById(userId)
-                  .orElseThrow(
-                      () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-          user = Hibernate.unproxy(user, User.class);
+          User user = users.get((Integer) entry.getValue());
+          if (user == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+          }
           eventDetailsMap.put("user", user);
         }
         default -> eventDetailsMap.put(entry.getKey(), entry.getValue());
@@ -801,4 +1105,5 @@ public class LetterService {
     }
     return eventDetailsMap;
   }
+
 }
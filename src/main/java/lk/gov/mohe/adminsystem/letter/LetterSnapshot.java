@@ -0,0 +1,10 @@
+package lk.gov.mohe.adminsystem.letter;
+
+/** The parts of a letter that decide who sees it and how it is counted. */
+public record LetterSnapshot(LetterStatsKey stats, Integer assignedUserId) {
+  public static LetterSnapshot of(Letter letter) {
+    return new LetterSnapshot(
+        LetterStatsKey.of(letter),
+        letter.getAssignedUser() != null ? letter.getAssignedUser().getId() : null);
+  }
+}
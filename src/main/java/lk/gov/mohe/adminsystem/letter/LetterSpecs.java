@@ -1,17 +1,15 @@
 package lk.gov.mohe.adminsystem.letter;
 
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
-import jakarta.persistence.criteria.Root;
 import java.time.LocalDate;
 import lk.gov.mohe.adminsystem.division.Division;
 import lk.gov.mohe.adminsystem.user.User;
 import org.springframework.data.jpa.domain.Specification;
 
 public final class LetterSpecs {
-  private static final String JSONB_EXTRACT = "jsonb_extract_path_text";
+  private static final String SENDER_SEARCH_TEXT = "letter_sender_search_text";
+  private static final String RECEIVER_SEARCH_TEXT = "letter_receiver_search_text";
   private static final String SENDER_DETAILS = "senderDetails";
   private static final String RECEIVER_DETAILS = "receiverDetails";
   private static final String ASSIGNED_DIVISION = "assignedDivision";
@@ -90,36 +88,30 @@ public final class LetterSpecs {
     };
   }
 
+  // Matches name, address, email or phone number through idx_letters_sender_search_trgm (see V9)
   public static Specification<Letter> hasSenderContaining(String term) {
     String like = "%" + term.toLowerCase() + "%";
     return (root, query, cb) ->
-        cb.or(
-            cb.like(cb.lower(jsonField(root, cb, SENDER_DETAILS, "name")), like),
-            cb.like(cb.lower(jsonField(root, cb, SENDER_DETAILS, "address")), like),
-            cb.like(cb.lower(jsonField(root, cb, SENDER_DETAILS, "email")), like),
-            cb.like(cb.lower(jsonField(root, cb, SENDER_DETAILS, "phone_number")), like));
+        cb.like(cb.function(SENDER_SEARCH_TEXT, String.class, root.get(SENDER_DETAILS)), like);
   }
 
+  // Matches name, designation or division name through idx_letters_receiver_search_trgm (see V9)
   public static Specification<Letter> hasReceiverContaining(String term) {
     String like = "%" + term.toLowerCase() + "%";
     return (root, query, cb) ->
-        cb.or(
-            cb.like(cb.lower(jsonField(root, cb, RECEIVER_DETAILS, "name")), like),
-            cb.like(cb.lower(jsonField(root, cb, RECEIVER_DETAILS, "designation")), like),
-            cb.like(cb.lower(jsonField(root, cb, RECEIVER_DETAILS, "division_name")), like));
+        cb.like(cb.function(RECEIVER_SEARCH_TEXT, String.class, root.get(RECEIVER_DETAILS)), like);
   }
 
+  // Uses the PGroonga index on ARRAY[reference, subject, content] (see V8 and V16)
   public static Specification<Letter> matchesQuery(String queryText) {
-    String like = "%" + queryText.toLowerCase() + "%";
     return (root, query, cb) ->
-        cb.or(
-            cb.like(cb.lower(root.get("reference")), like),
-            cb.like(cb.lower(root.get("subject")), like),
-            cb.like(cb.lower(root.get("content")), like));
-  }
-
-  private static Expression<String> jsonField(
-      Root<Letter> root, CriteriaBuilder cb, String column, String key) {
-    return cb.function(JSONB_EXTRACT, String.class, root.get(column), cb.literal(key));
+        cb.isTrue(
+            cb.function(
+                "pgroonga_match_any",
+                Boolean.class,
+                root.get("reference"),
+                root.get("subject"),
+                root.get("content"),
+                cb.literal(queryText)));
   }
 }
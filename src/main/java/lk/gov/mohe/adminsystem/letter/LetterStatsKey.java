@@ -0,0 +1,32 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import java.util.Comparator;
+
+/** The dimensions letters are counted by in {@code letter_stats}; division 0 means unassigned. */
+public record LetterStatsKey(StatusEnum status, PriorityEnum priority, int divisionId)
+    implements Comparable<LetterStatsKey> {
+  public static final int UNASSIGNED_DIVISION_ID = 0;
+
+  private static final Comparator<LetterStatsKey> ORDER =
+      Comparator.comparing(LetterStatsKey::status)
+          .thenComparing(LetterStatsKey::priority)
+          .thenComparingInt(LetterStatsKey::divisionId);
+
+  public static LetterStatsKey of(Letter letter) {
+    return new LetterStatsKey(
+        letter.getStatus(),
+        letter.getPriority(),
+        letter.getAssignedDivision() != null
+            ? letter.getAssignedDivision().getId()
+            : UNASSIGNED_DIVISION_ID);
+  }
+
+  public boolean isUnassigned() {
+    return divisionId == UNASSIGNED_DIVISION_ID;
+  }
+
+  @Override
+  public int compareTo(LetterStatsKey other) {
+    return ORDER.compare(this, other);
+  }
+}
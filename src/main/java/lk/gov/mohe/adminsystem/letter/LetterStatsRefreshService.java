@@ -0,0 +1,33 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/** Rebuilds the materialized letter counts at startup and on a schedule. */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LetterStatsRefreshService {
+
+  private final LetterStatsService letterStatsService;
+
+  /** Repeatable migrations (sample data) run after the table is first populated. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void refreshOnStartup() {
+    refreshLetterStats();
+  }
+
+  @Scheduled(cron = "${custom.letters.stats-refresh-cron}")
+  public void refreshLetterStats() {
+    try {
+      letterStatsService.refresh();
+      log.debug("Rebuilt letter statistics");
+    } catch (Exception e) {
+      log.error("Error while rebuilding letter statistics", e);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the {@code letter_stats} counts in step with the letters table. {@link LetterService} reports
+ * every change to a letter's status, priority or division, and {@link #refresh()} rebuilds the
+ * table from scratch to correct any drift (e.g. rows written outside the service).
+ */
+@Service
+@RequiredArgsConstructor
+public class LetterStatsService {
+  private final LetterRepository letterRepository;
+
+  /**
+   * Moves a letter from one count to another. Either key may be null, for a letter that is created
+   * or removed. Must run in the transaction that changes the letter.
+   */
+  @Transactional
+  public void recordChange(LetterStatsKey before, LetterStatsKey after) {
+    if (Objects.equals(before, after)) {
+      return;
+    }
+    // Rows are updated in key order so that two opposite transitions cannot deadlock
+    Map<LetterStatsKey, Long> deltas = new TreeMap<>();
+    if (before != null) {
+      deltas.put(before, -1L);
+    }
+    if (after != null) {
+      deltas.put(after, 1L);
+    }
+    deltas.forEach(
+        (key, delta) ->
+            letterRepository.addToLetterStats(
+                key.status().name(), key.priority().name(), key.divisionId(), delta));
+  }
+
+  @Transactional(readOnly = true)
+  public Map<LetterStatsKey, Long> getCounts() {
+    return toCounts(letterRepository.findLetterStats());
+  }
+
+  /**
+   * Counts for one division, or for unassigned letters with {@link
+   * LetterStatsKey#UNASSIGNED_DIVISION_ID}.
+   */
+  @Transactional(readOnly = true)
+  public Map<LetterStatsKey, Long> getCounts(int divisionId) {
+    return toCounts(letterRepository.findLetterStatsByDivisionId(divisionId));
+  }
+
+  @Transactional
+  public void refresh() {
+    letterRepository.lockLetterStats();
+    letterRepository.clearLetterStats();
+    letterRepository.rebuildLetterStats();
+  }
+
+  private static Map<LetterStatsKey, Long> toCounts(List<Object[]> rows) {
+    Map<LetterStatsKey, Long> counts = new HashMap<>();
+    for (Object[] row : rows) {
+      LetterStatsKey key =
+          new LetterStatsKey(
+              StatusEnum.valueOf((String) row[0]),
+              PriorityEnum.valueOf((String) row[1]),
+              ((Number) row[2]).intValue());
+      counts.put(key, ((Number) row[3]).longValue());
+    }
+    return counts;
+  }
+}
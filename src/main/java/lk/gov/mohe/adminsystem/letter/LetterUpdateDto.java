@@ -0,0 +1,23 @@
+package lk.gov.mohe.adminsystem.letter;
+
+/**
+ * A letter change pushed to subscribers of {@code GET /letters/stream}. The division is null while
+ * the letter is unassigned.
+ */
+public record LetterUpdateDto(
+    Integer letterId,
+    StatusEnum status,
+    PriorityEnum priority,
+    Integer divisionId,
+    Integer assignedUserId) {
+
+  static LetterUpdateDto of(Integer letterId, LetterSnapshot snapshot) {
+    LetterStatsKey stats = snapshot.stats();
+    return new LetterUpdateDto(
+        letterId,
+        stats.status(),
+        stats.priority(),
+        stats.isUnassigned() ? null : stats.divisionId(),
+        snapshot.assignedUserId());
+  }
+}
@@ -0,0 +1,224 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes letter assignments, returns, acceptances and closures, and new notes and replies, to
+ * subscribed clients over Server-Sent Events. Each subscriber sees the letters its scopes cover,
+ * the same ones {@code GET /letters} would list, and is told when a letter enters or leaves them.
+ *
+ * <p>Every subscriber has a bounded queue drained by its own virtual thread, so an idle connection
+ * costs a parked thread and a slow client cannot hold up the others. A subscriber whose queue fills
+ * up is disconnected and is expected to reconnect and reload.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LetterUpdateStream {
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final LetterRepository letterRepository;
+
+  @Value("${custom.letters.stream.heartbeat-interval}")
+  private Duration heartbeatInterval;
+
+  @Value("${custom.letters.stream.queue-capacity}")
+  private int queueCapacity;
+
+  /**
+   * Opens a stream that ends when the access token expires, so clients reconnect with a fresh
+   * token and the scopes are checked again.
+   */
+  public SseEmitter subscribe(
+      Integer userId, Integer divisionId, Collection<String> authorities, Instant expiresAt) {
+    long timeout = Math.max(1000, Duration.between(Instant.now(), expiresAt).toMillis());
+    SseEmitter emitter = new SseEmitter(timeout);
+    Subscriber subscriber =
+        new Subscriber(
+            emitter,
+            userId,
+            divisionId,
+            Set.copyOf(authorities),
+            new ArrayBlockingQueue<>(queueCapacity));
+    emitter.onCompletion(() -> remove(subscriber));
+    emitter.onTimeout(() -> remove(subscriber));
+    emitter.onError(e -> remove(subscriber));
+    subscribers.add(subscriber);
+    subscriber.thread =
+        Thread.ofVirtual().name("letter-stream-" + userId).start(() -> drain(subscriber));
+    return emitter;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onLetterChanged(LetterChangedEvent event) {
+    String type = updateType(event);
+    if (type == null) {
+      return;
+    }
+    publish(
+        new Update(type, LetterUpdateDto.of(event.letterId(), event.after())),
+        subscriber -> subscriber.canSee(event.before()) || subscriber.canSee(event.after()));
+  }
+
+  /**
+   * Streams notes and replies once the outbox relay hands them out. Nothing is counted from them,
+   * so they can wait for the relay, which may be held back by a long transaction (see {@link
+   * LetterEventRelay}). A batch that is handed out again streams its notes again.
+   */
+  @EventListener
+  public void onLetterEventsRelayed(LetterEventsRelayedEvent event) {
+    List<RelayedLetterEvent> relayed =
+        event.events().stream()
+            .filter(relayedEvent -> relayedUpdateType(relayedEvent.eventType()) != null)
+            .toList();
+    if (relayed.isEmpty() || subscribers.isEmpty()) {
+      return;
+    }
+    Map<Integer, LetterSnapshot> letters = new HashMap<>();
+    letterRepository
+        .findAllById(relayed.stream().map(RelayedLetterEvent::letterId).distinct().toList())
+        .forEach(letter -> letters.put(letter.getId(), LetterSnapshot.of(letter)));
+    for (RelayedLetterEvent relayedEvent : relayed) {
+      LetterSnapshot letter = letters.get(relayedEvent.letterId());
+      if (letter != null) {
+        String type = relayedUpdateType(relayedEvent.eventType());
+        publish(
+            new Update(type, LetterUpdateDto.of(relayedEvent.letterId(), letter)),
+            subscriber -> subscriber.canSee(letter));
+      }
+    }
+  }
+
+  int subscriberCount() {
+    return subscribers.size();
+  }
+
+  @PreDestroy
+  void closeAll() {
+    subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    subscribers.forEach(this::remove);
+  }
+
+  /** Names the transition the letter made, or null for changes that are not streamed. */
+  static String updateType(LetterChangedEvent event) {
+    if (event.before() == null
+        || event.before().stats().status() == event.after().stats().status()) {
+      return null;
+    }
+    return switch (event.after().stats().status()) {
+      case ASSIGNED_TO_DIVISION, PENDING_ACCEPTANCE -> "assigned";
+      case RETURNED_FROM_OFFICER, RETURNED_FROM_DIVISION -> "returned";
+      case ASSIGNED_TO_OFFICER -> "accepted";
+      case CLOSED -> "closed";
+      case NEW -> null;
+    };
+  }
+
+  private static String relayedUpdateType(EventTypeEnum eventType) {
+    return switch (eventType) {
+      case ADD_NOTE -> "noted";
+      case REPLY -> "replied";
+      default -> null;
+    };
+  }
+
+  private void publish(Update update, Predicate<Subscriber> audience) {
+    for (Subscriber subscriber : subscribers) {
+      if (!audience.test(subscriber)) {
+        continue;
+      }
+      if (!subscriber.queue.offer(update)) {
+        log.debug(
+            "Disconnecting letter stream of user [{}], it is not keeping up", subscriber.userId);
+        subscriber.emitter.complete();
+        remove(subscriber);
+      }
+    }
+  }
+
+  private void drain(Subscriber subscriber) {
+    try {
+      while (subscribers.contains(subscriber)) {
+        Update update = subscriber.queue.poll(heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (update == null) {
+          // Lets proxies keep the connection open and finds clients that have gone away
+          subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else {
+          subscriber.emitter.send(SseEmitter.event().name(update.type()).data(update.letter()));
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException | IllegalStateException e) {
+      // The client disconnected or the emitter has already completed
+      remove(subscriber);
+    }
+  }
+
+  private void remove(Subscriber subscriber) {
+    if (subscribers.remove(subscriber) && subscriber.thread != null) {
+      subscriber.thread.interrupt();
+    }
+  }
+
+  private record Update(String type, LetterUpdateDto letter) {}
+
+  private static final class Subscriber {
+    private final SseEmitter emitter;
+    private final Integer userId;
+    private final Integer divisionId;
+    private final Set<String> authorities;
+    private final BlockingQueue<Update> queue;
+    private volatile Thread thread;
+
+    private Subscriber(
+        SseEmitter emitter,
+        Integer userId,
+        Integer divisionId,
+        Set<String> authorities,
+        BlockingQueue<Update> queue) {
+      this.emitter = emitter;
+      this.userId = userId;
+      this.divisionId = divisionId;
+      this.authorities = authorities;
+      this.queue = queue;
+    }
+
+    /** Mirrors the scopes GET /letters filters by. */
+    private boolean canSee(LetterSnapshot letter) {
+      if (letter == null) {
+        return false;
+      }
+      LetterStatsKey stats = letter.stats();
+      return authorities.contains("letter:all:read")
+          || (authorities.contains("letter:unassigned:read")
+              && stats.isUnassigned()
+              && letter.assignedUserId() == null)
+          || (authorities.contains("letter:division:read")
+              && !stats.isUnassigned()
+              && Integer.valueOf(stats.divisionId()).equals(divisionId))
+          || (authorities.contains("letter:own:manage")
+              && letter.assignedUserId() != null
+              && letter.assignedUserId().equals(userId));
+    }
+  }
+}
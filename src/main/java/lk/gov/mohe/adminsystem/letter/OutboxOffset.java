@@ -0,0 +1,31 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.Setter;
+
+/** How far a relay has worked through its outbox, by transaction id and entry id. */
+@Getter
+@Setter
+@Entity
+@Table(name = "outbox_offsets")
+public class OutboxOffset {
+  @Id
+  @Size(max = 64)
+  @Column(name = "name", nullable = false, length = 64)
+  private String name;
+
+  @NotNull
+  @Column(name = "tx_id", nullable = false)
+  private Long txId;
+
+  @NotNull
+  @Column(name = "last_id", nullable = false)
+  private Long lastId;
+
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+}
@@ -0,0 +1,14 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+  /** Locks the offset, so only one instance relays at a time. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT o FROM OutboxOffset o WHERE o.name = :name")
+  Optional<OutboxOffset> findByNameForUpdate(String name);
+}
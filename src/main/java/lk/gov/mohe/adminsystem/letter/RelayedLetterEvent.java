@@ -0,0 +1,21 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import java.time.Instant;
+
+/** A letter event as handed out by {@link LetterEventRelay}. */
+public record RelayedLetterEvent(
+    Long outboxId,
+    Integer letterEventId,
+    Integer letterId,
+    EventTypeEnum eventType,
+    Instant createdAt) {
+
+  static RelayedLetterEvent of(LetterEventOutboxEntry entry) {
+    return new RelayedLetterEvent(
+        entry.getId(),
+        entry.getLetterEventId(),
+        entry.getLetterId(),
+        entry.getEventType(),
+        entry.getCreatedAt());
+  }
+}
@@ -0,0 +1,4 @@
+package lk.gov.mohe.adminsystem.role;
+
+/** Published when a role is created, updated or deleted. */
+public record RoleChangedEvent(Integer roleId) {}
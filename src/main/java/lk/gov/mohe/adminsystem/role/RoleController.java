@@ -2,8 +2,9 @@ package lk.gov.mohe.adminsystem.role;
 
 import java.util.*;
 import lk.gov.mohe.adminsystem.util.ApiResponse;
+import lk.gov.mohe.adminsystem.util.CountMode;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,8 +18,9 @@ public class RoleController {
   public ApiResponse<List<RoleDto>> getRoles(
       @RequestParam(required = false) String query,
       @RequestParam(defaultValue = "0") Integer page,
-      @RequestParam(defaultValue = "10") Integer pageSize) {
-    Page<RoleDto> roles = roleService.getRoles(query, page, pageSize);
+      @RequestParam(defaultValue = "10") Integer pageSize,
+      @RequestParam(defaultValue = "exact") CountMode count) {
+    Slice<RoleDto> roles = roleService.getRoles(query, page, pageSize, count);
     return ApiResponse.paged(roles);
   }
 
@@ -1,8 +1,10 @@
 package lk.gov.mohe.adminsystem.role;
 
+import java.util.List;
 import java.util.Optional;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
 public interface RoleRepository
@@ -13,4 +15,7 @@ public interface RoleRepository
   Boolean existsByNameIgnoreCase(String name);
 
   Optional<Role> findByName(String name);
+
+  @Query("SELECT p.name FROM Role r JOIN r.permissions p WHERE r.id = :roleId ORDER BY p.name")
+  List<String> findPermissionNamesByRoleId(Integer roleId);
 }
@@ -0,0 +1,6 @@
+package lk.gov.mohe.adminsystem.role;
+
+import java.util.Set;
+
+/** A role's permission names, and the same names joined into an OAuth2 scope string. */
+public record RoleScope(String scope, Set<String> permissions) {}
@@ -0,0 +1,50 @@
+package lk.gov.mohe.adminsystem.role;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-process cache of role id to {@link RoleScope}, so minting access tokens does not load the
+ * role and its permissions on every login and refresh. Entries are evicted by {@link RoleService}
+ * whenever a role changes.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoleScopeCache {
+  private final RoleRepository roleRepository;
+  private final Map<Integer, RoleScope> scopes = new ConcurrentHashMap<>();
+
+  public RoleScope get(Integer roleId) {
+    return scopes.computeIfAbsent(roleId, this::load);
+  }
+
+  /**
+   * Evicts the role once the surrounding transaction commits, so a concurrent token refresh cannot
+   * cache the permissions that are about to be replaced. Evicts immediately outside a transaction.
+   */
+  public void evict(Integer roleId) {
+    scopes.remove(roleId);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            scopes.remove(roleId);
+          }
+        });
+  }
+
+  private RoleScope load(Integer roleId) {
+    Set<String> permissions =
+        new LinkedHashSet<>(roleRepository.findPermissionNamesByRoleId(roleId));
+    return new RoleScope(String.join(" ", permissions), Set.copyOf(permissions));
+  }
+}
@@ -4,10 +4,14 @@ import java.util.*;
 import lk.gov.mohe.adminsystem.permission.Permission;
 import lk.gov.mohe.adminsystem.permission.PermissionRepository;
 import lk.gov.mohe.adminsystem.user.UserRepository;
+import lk.gov.mohe.adminsystem.util.CountMode;
+import lk.gov.mohe.adminsystem.util.PagingUtil;
+import lk.gov.mohe.adminsystem.util.RowCountEstimator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -22,9 +26,12 @@ public class RoleService {
   private final UserRepository userRepository;
   private final RoleMapper roleMapper;
   private final PermissionRepository permissionRepository;
+  private final RowCountEstimator rowCountEstimator;
+  private final RoleScopeCache roleScopeCache;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Transactional(readOnly = true)
-  public Page<RoleDto> getRoles(String query, Integer page, Integer pageSize) {
+  public Slice<RoleDto> getRoles(String query, Integer page, Integer pageSize, CountMode countMode) {
     Pageable pageable = PageRequest.of(page, pageSize);
 
     Specification<Role> spec = null;
@@ -38,8 +45,10 @@ public class RoleService {
                   criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), likeQuery));
     }
 
-    Page<Role> roles = roleRepository.findAll(spec, pageable);
-    Page<RoleDto> roleDtos = roles.map(roleMapper::roleToRoleDto);
+    Slice<Role> roles =
+        PagingUtil.findAll(
+            roleRepository, spec, pageable, countMode, () -> rowCountEstimator.estimate(Role.class));
+    Slice<RoleDto> roleDtos = roles.map(roleMapper::roleToRoleDto);
 
     List<Integer> roleIds = roleDtos.stream().map(RoleDto::getId).toList();
     List<Object[]> userCounts = userRepository.countUsersByRoleIds(roleIds);
@@ -75,6 +84,7 @@ public class RoleService {
     role.setDescription(request.description());
     role.setPermissions(new HashSet<>(permissions));
     roleRepository.save(role);
+    eventPublisher.publishEvent(new RoleChangedEvent(role.getId()));
   }
 
   @Transactional
@@ -99,6 +109,8 @@ public class RoleService {
     role.setDescription(request.description());
     role.setPermissions(new HashSet<>(permissions));
     roleRepository.save(role);
+    roleScopeCache.evict(role.getId());
+    eventPublisher.publishEvent(new RoleChangedEvent(role.getId()));
   }
 
   @Transactional
@@ -115,5 +127,7 @@ public class RoleService {
     }
 
     roleRepository.delete(role);
+    roleScopeCache.evict(role.getId());
+    eventPublisher.publishEvent(new RoleChangedEvent(role.getId()));
   }
 }
@@ -2,8 +2,7 @@ package lk.gov.mohe.adminsystem.security;
 
 import java.time.Instant;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import lk.gov.mohe.adminsystem.permission.Permission;
+import lk.gov.mohe.adminsystem.role.RoleScopeCache;
 import lk.gov.mohe.adminsystem.user.User;
 import lk.gov.mohe.adminsystem.user.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +25,7 @@ public class AuthService {
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
   private final RefreshTokenService refreshTokenService;
+  private final RoleScopeCache roleScopeCache;
 
   @Value("${custom.jwt.access-token-validity-seconds}")
   private Long accessTokenValiditySeconds;
@@ -128,16 +128,14 @@ public class AuthService {
           HttpStatus.INTERNAL_SERVER_ERROR, "Cannot generate token for null user");
     }
 
-    if (user.getRole() == null || user.getRole().getPermissions() == null) {
+    if (user.getRole() == null) {
       throw new ResponseStatusException(
           HttpStatus.INTERNAL_SERVER_ERROR, "User has invalid role or permissions");
     }
 
     Instant now = Instant.now();
-    String scope =
-        user.getRole().getPermissions().stream()
-            .map(Permission::getName)
-            .collect(Collectors.joining(" "));
+    // Reading the id from the lazy role proxy does not initialize it
+    String scope = roleScopeCache.get(user.getRole().getId()).scope();
 
     JwtClaimsSet claims =
         JwtClaimsSet.builder()
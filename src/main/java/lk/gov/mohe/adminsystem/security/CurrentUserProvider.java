@@ -1,31 +1,63 @@
 package lk.gov.mohe.adminsystem.security;
 
+import jakarta.persistence.EntityManager;
 import lk.gov.mohe.adminsystem.user.User;
 import lk.gov.mohe.adminsystem.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
 import org.springframework.web.server.ResponseStatusException;
 
+/**
+ * Resolves the authenticated user at most once per request. Callers that only need the user as a
+ * foreign key should use {@link #getCurrentUserReference()}, which reads the id from the JWT and
+ * does not query the users table.
+ */
 @Component
+@RequestScope
 @RequiredArgsConstructor
 public class CurrentUserProvider {
+  private static final String USER_ID_CLAIM = "userId";
+
   private final UserRepository userRepository;
+  private final EntityManager entityManager;
+
+  private User currentUser;
 
   public User getCurrentUserOrThrow() {
+    if (currentUser == null) {
+      String username = getAuthenticationOrThrow().getName();
+      User user = userRepository.findByUsername(username);
+      if (user == null) {
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found");
+      }
+      currentUser = user;
+    }
+    return currentUser;
+  }
+
+  public User getCurrentUserReference() {
+    if (currentUser != null) {
+      return currentUser;
+    }
+    Authentication authentication = getAuthenticationOrThrow();
+    if (authentication.getPrincipal() instanceof Jwt jwt
+        && jwt.getClaim(USER_ID_CLAIM) instanceof Number userId) {
+      return entityManager.getReference(User.class, userId.intValue());
+    }
+    return getCurrentUserOrThrow();
+  }
+
+  private Authentication getAuthenticationOrThrow() {
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
     if (authentication == null || !authentication.isAuthenticated()) {
       throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication is required");
     }
-
-    String username = authentication.getName();
-    User user = userRepository.findByUsername(username);
-    if (user == null) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found");
-    }
-    return user;
+    return authentication;
   }
 }
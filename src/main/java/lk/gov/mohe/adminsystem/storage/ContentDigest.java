@@ -0,0 +1,4 @@
+package lk.gov.mohe.adminsystem.storage;
+
+/** SHA-256 of an object's content and its first bytes, read from storage in one pass. */
+public record ContentDigest(String sha256, byte[] leadingBytes) {}
@@ -0,0 +1,36 @@
+package lk.gov.mohe.adminsystem.storage;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.Setter;
+
+/** A stored object addressed by the SHA-256 of its content, shared by identical attachments. */
+@Getter
+@Setter
+@Entity
+@Table(name = "content_objects")
+public class ContentObject {
+  @Id
+  @Size(max = 64)
+  @Column(name = "sha256", nullable = false, length = 64)
+  private String sha256;
+
+  @Size(max = 255)
+  @NotNull
+  @Column(name = "object_name", nullable = false, unique = true)
+  private String objectName;
+
+  @NotNull
+  @Column(name = "file_size", nullable = false)
+  private Long fileSize;
+
+  @NotNull
+  @Column(name = "reference_count", nullable = false)
+  private Integer referenceCount;
+
+  @Column(name = "created_at", insertable = false, updatable = false)
+  private Instant createdAt;
+}
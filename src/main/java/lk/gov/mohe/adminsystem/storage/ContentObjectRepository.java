@@ -0,0 +1,40 @@
+package lk.gov.mohe.adminsystem.storage;
+
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ContentObjectRepository extends JpaRepository<ContentObject, String> {
+  /** Returns 0 when the content is not stored yet. */
+  @Modifying
+  @Query(
+      "UPDATE ContentObject c SET c.referenceCount = c.referenceCount + :count"
+          + " WHERE c.sha256 = :sha256")
+  int addReferences(String sha256, int count);
+
+  /** Records newly uploaded content, or adds to it if a concurrent upload recorded it first. */
+  @Modifying
+  @Query(
+      value =
+          """
+          INSERT INTO content_objects (sha256, object_name, file_size, reference_count)
+          VALUES (:sha256, :objectName, :fileSize, :count)
+          ON CONFLICT (sha256)
+              DO UPDATE SET reference_count = content_objects.reference_count + EXCLUDED.reference_count
+          """,
+      nativeQuery = true)
+  void insertOrAddReferences(String sha256, String objectName, long fileSize, int count);
+
+  /** Returns 0 when the object is not content-addressed. */
+  @Modifying
+  @Query(
+      "UPDATE ContentObject c SET c.referenceCount = c.referenceCount - 1"
+          + " WHERE c.objectName = :objectName AND c.referenceCount > 0")
+  int removeReference(String objectName);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<ContentObject> findByObjectName(String objectName);
+}
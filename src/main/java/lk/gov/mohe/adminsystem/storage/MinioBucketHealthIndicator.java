@@ -0,0 +1,28 @@
+package lk.gov.mohe.adminsystem.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the storage bucket as part of readiness. Until the bucket has been verified, each check
+ * tries again, so an instance that started before MinIO was reachable becomes ready on its own.
+ */
+@Component
+@RequiredArgsConstructor
+public class MinioBucketHealthIndicator implements HealthIndicator {
+  private final MinioStorageService storageService;
+
+  @Override
+  public Health health() {
+    if (!storageService.isBucketReady()) {
+      try {
+        storageService.ensureBucket();
+      } catch (Exception e) {
+        return Health.down(e).build();
+      }
+    }
+    return Health.up().build();
+  }
+}
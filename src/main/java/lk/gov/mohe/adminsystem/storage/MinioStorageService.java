@@ -1,20 +1,55 @@
 package lk.gov.mohe.adminsystem.storage;
 
 import io.minio.BucketExistsArgs;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.GetObjectArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
+import io.minio.ListObjectsArgs;
 import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.function.ThrowingFunction;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -23,31 +58,282 @@ import org.springframework.web.server.ResponseStatusException;
 @RequiredArgsConstructor
 public class MinioStorageService {
   private static final int DEFAULT_EXPIRY_SECONDS = 24 * 3600; // Default to 24 hours
+  private static final String NO_SUCH_BUCKET = "NoSuchBucket";
+  private static final String NO_SUCH_KEY = "NoSuchKey";
+  private static final String PRECONDITION_FAILED = "PreconditionFailed";
+  private static final String CONTENT_FOLDER = "content";
   private final MinioClient minioClient;
+  private final ContentObjectRepository contentObjectRepository;
+  private final ObjectDeletionRepository objectDeletionRepository;
+  private final PlatformTransactionManager transactionManager;
 
   @Value("${custom.minio.bucket}")
   private String bucket;
 
+  @Value("${custom.minio.deletions.orphan-grace-period}")
+  private Duration orphanGracePeriod;
+
+  private volatile boolean bucketReady;
+
+  // Bounds concurrent PUTs across all requests, whatever thread they run on
+  private Semaphore uploadPermits;
+
+  @Value("${custom.minio.upload-concurrency}")
+  void setUploadConcurrency(int uploadConcurrency) {
+    this.uploadPermits = new Semaphore(uploadConcurrency);
+  }
+
+  /** Uploads the file under a new unique name. It is not deduplicated or reference-counted. */
   public String upload(String folder, MultipartFile file) {
+    String objectName = buildObjectName(folder, file.getOriginalFilename());
+    put(objectName, file);
+    return objectName;
+  }
+
+  /**
+   * Stores the files under names derived from the SHA-256 of their content and returns those names
+   * in the same order. Content the bucket already holds is not uploaded again; the rest is
+   * uploaded in parallel on virtual threads. Each returned name gains one reference, in the
+   * current transaction, which {@link #release} gives back.
+   *
+   * <p>Objects this call uploads are queued for deletion if the transaction does not commit,
+   * including when one of the uploads fails. They are never removed directly: another request may
+   * have uploaded the same content at the same time and be about to reference it, so only {@link
+   * ObjectDeletionWorker} removes them, once the reference count shows nothing uses them.
+   */
+  public List<String> uploadAll(List<MultipartFile> files) {
+    List<String> hashes = runInParallel(files, this::sha256);
+
+    // Sorted so concurrent uploads and the deletion worker lock rows in the same order
+    Map<String, Integer> referenceCounts = new TreeMap<>();
+    Map<String, MultipartFile> contents = new HashMap<>();
+    for (int i = 0; i < files.size(); i++) {
+      referenceCounts.merge(hashes.get(i), 1, Integer::sum);
+      contents.putIfAbsent(hashes.get(i), files.get(i));
+    }
+    List<String> missing = new ArrayList<>();
+    referenceCounts.forEach(
+        (hash, count) -> {
+          if (contentObjectRepository.addReferences(hash, count) == 0) {
+            missing.add(hash);
+          }
+        });
+
+    removeUnreferencedOnRollback(
+        missing.stream().map(MinioStorageService::contentObjectName).toList());
+    runInParallel(
+        missing,
+        hash -> {
+          String objectName = contentObjectName(hash);
+          putWithPermit(objectName, contents.get(hash));
+          return objectName;
+        });
+    for (String hash : missing) {
+      contentObjectRepository.insertOrAddReferences(
+          hash, contentObjectName(hash), contents.get(hash).getSize(), referenceCounts.get(hash));
+    }
+    return hashes.stream().map(MinioStorageService::contentObjectName).toList();
+  }
+
+  /**
+   * Reads the object once to hash it and returns the hash with its first {@code leadingByteCount}
+   * bytes. Fails with 409 if the object no longer has the given ETag.
+   */
+  public ContentDigest digest(String objectName, String etag, int leadingByteCount) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] leadingBytes;
+      GetObjectArgs args =
+          GetObjectArgs.builder().bucket(bucket).object(objectName).matchETag(etag).build();
+      try (InputStream is = new DigestInputStream(minioClient.getObject(args), digest)) {
+        leadingBytes = is.readNBytes(leadingByteCount);
+        is.transferTo(OutputStream.nullOutputStream());
+      }
+      return new ContentDigest(HexFormat.of().formatHex(digest.digest()), leadingBytes);
+    } catch (ErrorResponseException e) {
+      throw changedOrFailed(objectName, e, "Failed to read file from storage");
+    } catch (Exception e) {
+      log.error("Failed to read object: {}", objectName, e);
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, "Failed to read file from storage");
+    }
+  }
+
+  /**
+   * Moves an object a client uploaded to a presigned URL under the content-addressed name {@link
+   * #uploadAll} would give it, and returns that name with one reference taken. The copy happens
+   * inside MinIO and only if the object still has the ETag it was digested with, so the stored
+   * content is the content that was checked even if the client uploads to the URL again. The
+   * client-writable object is queued for deletion in the current transaction.
+   */
+  public String adoptUpload(String objectName, String etag, ContentDigest digest, long size) {
+    String contentName = contentObjectName(digest.sha256());
+    if (contentObjectRepository.addReferences(digest.sha256(), 1) == 0) {
+      removeUnreferencedOnRollback(List.of(contentName));
+      try {
+        minioClient.copyObject(
+            CopyObjectArgs.builder()
+                .bucket(bucket)
+                .object(contentName)
+                .source(
+                    CopySource.builder().bucket(bucket).object(objectName).matchETag(etag).build())
+                .build());
+      } catch (ErrorResponseException e) {
+        throw changedOrFailed(objectName, e, "Failed to store file");
+      } catch (Exception e) {
+        log.error("Failed to copy object {} to {}", objectName, contentName, e);
+        throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to store file");
+      }
+      contentObjectRepository.insertOrAddReferences(digest.sha256(), contentName, size, 1);
+    }
+    objectDeletionRepository.save(new ObjectDeletion(objectName));
+    return contentName;
+  }
+
+  /**
+   * Gives back references taken by {@link #uploadAll} and queues the objects for deletion in the
+   * current transaction. {@link ObjectDeletionWorker} only removes an object once nothing
+   * references it, so releasing one copy of shared content leaves it in place.
+   */
+  public void release(List<String> objectNames) {
+    List<ObjectDeletion> deletions = new ArrayList<>(objectNames.size());
+    for (String objectName : objectNames) {
+      contentObjectRepository.removeReference(objectName);
+      deletions.add(new ObjectDeletion(objectName));
+    }
+    objectDeletionRepository.saveAll(deletions);
+  }
+
+  /**
+   * Removes the objects in a single request and returns an error message for each object that
+   * could not be removed. Objects that do not exist count as removed.
+   */
+  public Map<String, String> removeObjects(List<String> objectNames) {
+    Map<String, String> failures = new HashMap<>();
+    try {
+      Iterable<Result<DeleteError>> results =
+          minioClient.removeObjects(
+              RemoveObjectsArgs.builder()
+                  .bucket(bucket)
+                  .objects(objectNames.stream().map(DeleteObject::new).toList())
+                  .build());
+      // The request is only sent while the results are iterated
+      for (Result<DeleteError> result : results) {
+        DeleteError error = result.get();
+        failures.put(error.objectName(), error.code() + ": " + error.message());
+      }
+    } catch (Exception e) {
+      log.error("Failed to remove {} objects", objectNames.size(), e);
+      objectNames.forEach(objectName -> failures.putIfAbsent(objectName, e.toString()));
+    }
+    return failures;
+  }
+
+  /** Lists the objects last modified before {@code cutoff}, passing their names on in batches. */
+  public void listObjectsModifiedBefore(
+      Instant cutoff, int batchSize, Consumer<List<String>> batchConsumer) {
+    List<String> batch = new ArrayList<>(batchSize);
+    try {
+      for (Result<Item> result :
+          minioClient.listObjects(ListObjectsArgs.builder().bucket(bucket).recursive(true).build())) {
+        Item item = result.get();
+        if (item.isDir() || !item.lastModified().toInstant().isBefore(cutoff)) {
+          continue;
+        }
+        batch.add(item.objectName());
+        if (batch.size() == batchSize) {
+          batchConsumer.accept(batch);
+          batch = new ArrayList<>(batchSize);
+        }
+      }
+    } catch (Exception e) {
+      log.error("Failed to list objects in bucket: {}", bucket, e);
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, "Failed to list files in storage");
+    }
+    if (!batch.isEmpty()) {
+      batchConsumer.accept(batch);
+    }
+  }
+
+  /**
+   * Verifies the bucket once the application is up so uploads don't have to. If storage is not
+   * reachable yet, the readiness check keeps retrying instead of failing startup.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void initBucket() {
     try {
       ensureBucket();
+    } catch (Exception e) {
+      log.warn("Bucket {} could not be verified at startup", bucket, e);
+    }
+  }
 
-      String objectName = buildObjectName(folder, file.getOriginalFilename());
+  public boolean isBucketReady() {
+    return bucketReady;
+  }
 
-      try (InputStream is = file.getInputStream()) {
-        PutObjectArgs args =
-            PutObjectArgs.builder()
-                .bucket(bucket)
-                .object(objectName)
-                .contentType(file.getContentType())
-                .stream(is, file.getSize(), -1)
-                .build();
-        minioClient.putObject(args);
+  /** Checks that the bucket exists and creates it if it does not. */
+  public synchronized void ensureBucket() throws Exception {
+    boolean exists = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build());
+    if (!exists) {
+      try {
+        minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+        log.info("Created bucket: {}", bucket);
+      } catch (ErrorResponseException e) {
+        // Another instance created it between the check and the create
+        if (!"BucketAlreadyOwnedByYou".equals(e.errorResponse().code())) {
+          throw e;
+        }
       }
-      return objectName;
+    }
+    bucketReady = true;
+  }
+
+  public InputStream download(String objectName) {
+    try {
+      return minioClient.getObject(GetObjectArgs.builder().bucket(bucket).object(objectName).build());
     } catch (Exception e) {
-      log.error("Failed to upload file: {}", file.getOriginalFilename(), e);
-      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to upload file");
+      log.error("Failed to download object: {}", objectName, e);
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, "Failed to download file from storage");
+    }
+  }
+
+  /** Reads {@code length} bytes starting at {@code offset}; MinIO serves only that range. */
+  public InputStream download(String objectName, long offset, long length) {
+    try {
+      return minioClient.getObject(
+          GetObjectArgs.builder()
+              .bucket(bucket)
+              .object(objectName)
+              .offset(offset)
+              .length(length)
+              .build());
+    } catch (Exception e) {
+      log.error("Failed to download range {}+{} of object: {}", offset, length, objectName, e);
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, "Failed to download file from storage");
+    }
+  }
+
+  public StoredObject stat(String objectName) {
+    try {
+      StatObjectResponse stat =
+          minioClient.statObject(
+              StatObjectArgs.builder().bucket(bucket).object(objectName).build());
+      return new StoredObject(stat.etag(), stat.size(), stat.contentType());
+    } catch (ErrorResponseException e) {
+      if (NO_SUCH_KEY.equals(e.errorResponse().code())) {
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found in storage");
+      }
+      log.error("Failed to read metadata of object: {}", objectName, e);
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, "Failed to read file from storage");
+    } catch (Exception e) {
+      log.error("Failed to read metadata of object: {}", objectName, e);
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, "Failed to read file from storage");
     }
   }
 
@@ -71,6 +357,23 @@ public class MinioStorageService {
     }
   }
 
+  /** Presigns a PUT so a client can upload {@code objectName} without going through the API. */
+  public String getUploadUrl(String objectName, int expiresInSeconds) {
+    try {
+      return minioClient.getPresignedObjectUrl(
+          io.minio.GetPresignedObjectUrlArgs.builder()
+              .method(io.minio.http.Method.PUT)
+              .bucket(bucket)
+              .object(objectName)
+              .expiry(expiresInSeconds)
+              .build());
+    } catch (Exception e) {
+      log.error("Failed to generate an upload URL for object: {}", objectName, e);
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, "Failed to generate an upload URL");
+    }
+  }
+
   public void delete(String objectName) {
     try {
       minioClient.removeObject(
@@ -83,14 +386,141 @@ public class MinioStorageService {
     }
   }
 
-  private void ensureBucket() throws Exception {
-    boolean exists = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build());
-    if (!exists) {
-      minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+  private ResponseStatusException changedOrFailed(
+      String objectName, ErrorResponseException e, String failureMessage) {
+    String code = e.errorResponse().code();
+    if (NO_SUCH_KEY.equals(code) || PRECONDITION_FAILED.equals(code)) {
+      return new ResponseStatusException(
+          HttpStatus.CONFLICT, "File was changed or removed while it was being stored");
+    }
+    log.error("Storage request failed for object: {}", objectName, e);
+    return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, failureMessage);
+  }
+
+  private void put(String objectName, MultipartFile file) {
+    try {
+      try {
+        putObject(objectName, file);
+      } catch (ErrorResponseException e) {
+        if (!NO_SUCH_BUCKET.equals(e.errorResponse().code())) {
+          throw e;
+        }
+        // The bucket is verified at startup, so this only happens if it was removed since
+        log.warn("Bucket {} is missing, recreating it before retrying the upload", bucket);
+        bucketReady = false;
+        ensureBucket();
+        putObject(objectName, file);
+      }
+    } catch (Exception e) {
+      log.error("Failed to upload file: {}", file.getOriginalFilename(), e);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to upload file");
+    }
+  }
+
+  private void putWithPermit(String objectName, MultipartFile file) throws InterruptedException {
+    uploadPermits.acquire();
+    try {
+      put(objectName, file);
+    } finally {
+      uploadPermits.release();
+    }
+  }
+
+  /**
+   * Runs the task for every item on virtual threads and returns the results in item order. If any
+   * task fails, the first failure is thrown once all tasks have finished.
+   */
+  private <T, R> List<R> runInParallel(List<T> items, ThrowingFunction<T, R> task) {
+    List<Future<R>> futures = new ArrayList<>(items.size());
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (T item : items) {
+        futures.add(executor.submit(() -> task.applyWithException(item)));
+      }
+    }
+
+    List<R> results = new ArrayList<>(items.size());
+    RuntimeException failure = null;
+    for (Future<R> future : futures) {
+      if (future.state() == Future.State.SUCCESS) {
+        results.add(future.resultNow());
+      } else if (failure == null) {
+        failure =
+            future.exceptionNow() instanceof ResponseStatusException cause
+                ? cause
+                : new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR, "Failed to upload file");
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return results;
+  }
+
+  private String sha256(MultipartFile file) throws Exception {
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    try (InputStream is = new DigestInputStream(file.getInputStream(), digest)) {
+      is.transferTo(OutputStream.nullOutputStream());
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static String contentObjectName(String sha256) {
+    return CONTENT_FOLDER + "/" + sha256.substring(0, 2) + "/" + sha256;
+  }
+
+  /**
+   * Queues the objects for deletion if the current transaction does not commit. The queue entry is
+   * written in a new transaction, and the worker skips objects that another upload now references.
+   * It only becomes due after the orphan grace period, so a concurrent upload of the same content
+   * has committed its reference by the time the worker checks.
+   * Without a transaction nothing is queued and {@link OrphanObjectReconciler} finds the objects.
+   */
+  private void removeUnreferencedOnRollback(List<String> objectNames) {
+    if (objectNames.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+              return;
+            }
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            try {
+              Instant due = Instant.now().plus(orphanGracePeriod);
+              transaction.executeWithoutResult(
+                  txStatus ->
+                      objectDeletionRepository.saveAll(
+                          objectNames.stream().map(name -> deletionDueAt(name, due)).toList()));
+            } catch (Exception e) {
+              log.error("Failed to queue deletion of objects: {}", objectNames, e);
+            }
+          }
+        });
+  }
+
+  private static ObjectDeletion deletionDueAt(String objectName, Instant due) {
+    ObjectDeletion deletion = new ObjectDeletion(objectName);
+    deletion.setNextAttemptAt(due);
+    return deletion;
+  }
+
+  private void putObject(String objectName, MultipartFile file) throws Exception {
+    try (InputStream is = file.getInputStream()) {
+      minioClient.putObject(
+          PutObjectArgs.builder()
+              .bucket(bucket)
+              .object(objectName)
+              .contentType(file.getContentType())
+              .stream(is, file.getSize(), -1)
+              .build());
     }
   }
 
-  private String buildObjectName(String folder, String originalFilename) {
+  public String buildObjectName(String folder, String originalFilename) {
     DateTimeFormatter formatter =
         DateTimeFormatter.ofPattern("yyyy/MM/dd").withZone(ZoneId.of("UTC"));
     String date = formatter.format(Instant.now());
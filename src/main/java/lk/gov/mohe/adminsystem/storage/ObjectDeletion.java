@@ -0,0 +1,52 @@
+package lk.gov.mohe.adminsystem.storage;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "object_deletions")
+public class ObjectDeletion {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id", nullable = false)
+  private Integer id;
+
+  @Size(max = 255)
+  @NotNull
+  @Column(name = "object_name", nullable = false)
+  private String objectName;
+
+  @NotNull
+  @Column(name = "attempts", nullable = false)
+  private Integer attempts = 0;
+
+  @NotNull
+  @Column(name = "next_attempt_at", nullable = false)
+  private Instant nextAttemptAt;
+
+  @Column(name = "last_error", length = Integer.MAX_VALUE)
+  private String lastError;
+
+  @Column(name = "created_at")
+  private Instant createdAt;
+
+  public ObjectDeletion(String objectName) {
+    this.objectName = objectName;
+  }
+
+  @PrePersist
+  public void onCreate() {
+    createdAt = Instant.now();
+    if (nextAttemptAt == null) {
+      nextAttemptAt = createdAt;
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package lk.gov.mohe.adminsystem.storage;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ObjectDeletionRepository extends JpaRepository<ObjectDeletion, Integer> {
+  /** Locks the due deletions, skipping rows another instance is already working on. */
+  @Query(
+      value =
+          "SELECT * FROM object_deletions WHERE next_attempt_at <= :now"
+              + " ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  List<ObjectDeletion> findDueForUpdate(Instant now, int limit);
+}
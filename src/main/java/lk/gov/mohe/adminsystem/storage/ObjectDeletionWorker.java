@@ -0,0 +1,106 @@
+package lk.gov.mohe.adminsystem.storage;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Works off the {@code object_deletions} outbox. Each batch is removed from MinIO with one
+ * multi-object delete; failures are retried with exponential backoff.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ObjectDeletionWorker {
+  private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+  private final ObjectDeletionRepository objectDeletionRepository;
+  private final ContentObjectRepository contentObjectRepository;
+  private final MinioStorageService storageService;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${custom.minio.deletions.batch-size}")
+  private int batchSize;
+
+  @Value("${custom.minio.deletions.retry-delay}")
+  private Duration retryDelay;
+
+  @Scheduled(fixedDelayString = "${custom.minio.deletions.poll-interval}")
+  public void processDueDeletions() {
+    try {
+      Integer processed;
+      do {
+        processed = transactionTemplate.execute(status -> processBatch());
+      } while (processed != null && processed == batchSize);
+    } catch (Exception e) {
+      log.error("Error while removing queued objects", e);
+    }
+  }
+
+  int processBatch() {
+    Instant now = Instant.now();
+    List<ObjectDeletion> due = objectDeletionRepository.findDueForUpdate(now, batchSize);
+    if (due.isEmpty()) {
+      return 0;
+    }
+
+    // Locks each content row in name order, the same order uploads take them in, and holds the
+    // locks until the objects are gone so no upload can start reusing one in the meantime
+    List<ObjectDeletion> finished = new ArrayList<>();
+    List<ObjectDeletion> pending = new ArrayList<>();
+    List<ContentObject> unreferenced = new ArrayList<>();
+    List<String> objectNames = new ArrayList<>();
+    due.sort(Comparator.comparing(ObjectDeletion::getObjectName));
+    for (ObjectDeletion deletion : due) {
+      String objectName = deletion.getObjectName();
+      if (objectNames.contains(objectName)) {
+        pending.add(deletion);
+        continue;
+      }
+      Optional<ContentObject> content = contentObjectRepository.findByObjectName(objectName);
+      if (content.isPresent() && content.get().getReferenceCount() > 0) {
+        finished.add(deletion);
+        continue;
+      }
+      content.ifPresent(unreferenced::add);
+      objectNames.add(objectName);
+      pending.add(deletion);
+    }
+
+    Map<String, String> failures =
+        objectNames.isEmpty() ? Map.of() : storageService.removeObjects(objectNames);
+    for (ObjectDeletion deletion : pending) {
+      String error = failures.get(deletion.getObjectName());
+      if (error == null) {
+        finished.add(deletion);
+      } else {
+        deletion.setAttempts(deletion.getAttempts() + 1);
+        deletion.setNextAttemptAt(now.plus(backoff(deletion.getAttempts())));
+        deletion.setLastError(error);
+      }
+    }
+    contentObjectRepository.deleteAll(
+        unreferenced.stream().filter(c -> !failures.containsKey(c.getObjectName())).toList());
+    objectDeletionRepository.deleteAll(finished);
+
+    if (!failures.isEmpty()) {
+      log.warn("Failed to remove {} of {} queued objects", failures.size(), objectNames.size());
+    }
+    return due.size();
+  }
+
+  private Duration backoff(int attempts) {
+    Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 16));
+    return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+  }
+}
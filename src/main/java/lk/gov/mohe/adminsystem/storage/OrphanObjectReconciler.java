@@ -0,0 +1,72 @@
+package lk.gov.mohe.adminsystem.storage;
+
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Finds objects in the bucket that nothing in the database points at and queues them for
+ * deletion. Objects younger than the grace period are left alone, since their rows may not be
+ * committed yet.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrphanObjectReconciler {
+  private static final int BATCH_SIZE = 1000;
+
+  // An object is in use if an attachment, a pending direct upload or a live content row names it,
+  // or if it is already queued
+  private static final String UNREFERENCED_NAMES_SQL =
+      """
+      SELECT name
+      FROM unnest(CAST(:names AS text[])) AS name
+      WHERE NOT EXISTS (SELECT 1 FROM attachments a WHERE a.file_path = name)
+        AND NOT EXISTS (SELECT 1 FROM attachment_upload_sessions s WHERE s.object_name = name)
+        AND NOT EXISTS (
+          SELECT 1 FROM content_objects c WHERE c.object_name = name AND c.reference_count > 0)
+        AND NOT EXISTS (SELECT 1 FROM object_deletions d WHERE d.object_name = name)
+      """;
+
+  private final EntityManager entityManager;
+  private final ObjectDeletionRepository objectDeletionRepository;
+  private final MinioStorageService storageService;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${custom.minio.deletions.orphan-grace-period}")
+  private Duration gracePeriod;
+
+  @Scheduled(cron = "${custom.minio.deletions.reconcile-cron}")
+  public void queueOrphanedObjects() {
+    try {
+      int[] queued = {0};
+      storageService.listObjectsModifiedBefore(
+          Instant.now().minus(gracePeriod),
+          BATCH_SIZE,
+          names -> queued[0] += transactionTemplate.execute(status -> queueUnreferenced(names)));
+      if (queued[0] > 0) {
+        log.info("Queued {} orphaned objects for deletion", queued[0]);
+      }
+    } catch (Exception e) {
+      log.error("Error while reconciling stored objects", e);
+    }
+  }
+
+  int queueUnreferenced(List<String> names) {
+    @SuppressWarnings("unchecked")
+    List<String> unreferenced =
+        entityManager
+            .createNativeQuery(UNREFERENCED_NAMES_SQL, String.class)
+            .setParameter("names", names.toArray(String[]::new))
+            .getResultList();
+    objectDeletionRepository.saveAll(unreferenced.stream().map(ObjectDeletion::new).toList());
+    return unreferenced.size();
+  }
+}
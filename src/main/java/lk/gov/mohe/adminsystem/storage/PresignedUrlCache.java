@@ -0,0 +1,73 @@
+package lk.gov.mohe.adminsystem.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded LRU cache of presigned GET URLs keyed by object name. A cached URL is handed out until it
+ * is within the refresh margin of its expiry, so repeated reads of the same attachment do not
+ * re-sign it.
+ */
+@Component
+public class PresignedUrlCache {
+  private final MinioStorageService storageService;
+  private final int validitySeconds;
+  private final Duration refreshMargin;
+  private final Map<String, CachedUrl> urls;
+  private final Counter hits;
+  private final Counter misses;
+
+  public PresignedUrlCache(
+      MinioStorageService storageService,
+      MeterRegistry meterRegistry,
+      @Value("${custom.minio.presigned-urls.validity-seconds}") int validitySeconds,
+      @Value("${custom.minio.presigned-urls.refresh-margin-seconds}") int refreshMarginSeconds,
+      @Value("${custom.minio.presigned-urls.max-entries}") int maxEntries) {
+    this.storageService = storageService;
+    this.validitySeconds = validitySeconds;
+    this.refreshMargin = Duration.ofSeconds(refreshMarginSeconds);
+    this.urls =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, CachedUrl> eldest) {
+            return size() > maxEntries;
+          }
+        };
+    this.hits = meterRegistry.counter("storage.presigned_urls.cache", "result", "hit");
+    this.misses = meterRegistry.counter("storage.presigned_urls.cache", "result", "miss");
+    meterRegistry.gauge("storage.presigned_urls.cache.size", urls, this::size);
+  }
+
+  public String getFileUrl(String objectName) {
+    Instant now = Instant.now();
+    synchronized (urls) {
+      CachedUrl cached = urls.get(objectName);
+      if (cached != null && now.isBefore(cached.expiresAt().minus(refreshMargin))) {
+        hits.increment();
+        return cached.url();
+      }
+    }
+
+    // Sign outside the lock; two concurrent misses for one object simply both sign it
+    misses.increment();
+    String url = storageService.getFileUrl(objectName, validitySeconds);
+    synchronized (urls) {
+      urls.put(objectName, new CachedUrl(url, now.plusSeconds(validitySeconds)));
+    }
+    return url;
+  }
+
+  private double size(Map<String, CachedUrl> map) {
+    synchronized (map) {
+      return map.size();
+    }
+  }
+
+  private record CachedUrl(String url, Instant expiresAt) {}
+}
@@ -0,0 +1,4 @@
+package lk.gov.mohe.adminsystem.storage;
+
+/** Metadata of an object in the bucket, as reported by MinIO. */
+public record StoredObject(String etag, long size, String contentType) {}
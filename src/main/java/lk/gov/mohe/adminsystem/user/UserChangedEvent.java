@@ -0,0 +1,4 @@
+package lk.gov.mohe.adminsystem.user;
+
+/** Published when an administrator creates, updates or deletes a user. */
+public record UserChangedEvent(Integer userId) {}
@@ -1,6 +1,8 @@
 package lk.gov.mohe.adminsystem.user;
 
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
@@ -14,6 +16,9 @@ public interface UserRepository
 
   User findByUsername(String username);
 
+  @EntityGraph(attributePaths = {"role", "division"})
+  List<User> findAllByIdIn(Collection<Integer> ids);
+
   /**
    * Custom query to count users by role IDs. This returns a list of Object arrays where each array
    * contains [roleId, userCount]
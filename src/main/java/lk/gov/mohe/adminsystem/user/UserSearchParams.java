@@ -1,5 +1,6 @@
 package lk.gov.mohe.adminsystem.user;
 
+import lk.gov.mohe.adminsystem.util.CountMode;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -14,4 +15,5 @@ public class UserSearchParams {
   
   private Integer page = 0;
   private Integer pageSize = 10;
+  private CountMode count = CountMode.EXACT;
 }
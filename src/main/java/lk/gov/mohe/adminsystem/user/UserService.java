@@ -14,11 +14,14 @@ import lk.gov.mohe.adminsystem.letter.LetterRepository;
 import lk.gov.mohe.adminsystem.notification.EmailService;
 import lk.gov.mohe.adminsystem.role.Role;
 import lk.gov.mohe.adminsystem.role.RoleRepository;
+import lk.gov.mohe.adminsystem.util.PagingUtil;
+import lk.gov.mohe.adminsystem.util.RowCountEstimator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -51,12 +54,14 @@ public class UserService {
   private final LetterEventRepository letterEventRepository;
   private final CabinetPaperRepository cabinetPaperRepository;
   private final CabinetDecisionRepository cabinetDecisionRepository;
+  private final RowCountEstimator rowCountEstimator;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Value("${custom.frontend.url}")
   private String frontendUrl;
 
   @Transactional(readOnly = true)
-  public Page<UserDto> getUsers(UserSearchParams searchParams) {
+  public Slice<UserDto> getUsers(UserSearchParams searchParams) {
     // Create sort with explicit ordering by id
     Sort sort = Sort.by(Sort.Order.asc("id"));
     Pageable pageable = PageRequest.of(
@@ -64,13 +69,16 @@ public class UserService {
         searchParams.getPageSize(),
         sort);
     Specification<User> spec = buildSearchSpec(searchParams);
-    
-    // Use a specification that matches all if spec is null
-    if (spec == null) {
-      spec = (root, query, cb) -> cb.conjunction(); // Matches all users
-    }
-    
-    Page<User> users = userRepository.findAll(spec, pageable);
+
+    Slice<User> users =
+        PagingUtil.findAll(
+            userRepository,
+            spec,
+            pageable,
+            searchParams.getCount(),
+            () -> rowCountEstimator.estimate(User.class),
+            "role",
+            "division");
     return users.map(userMapper::toUserDto);
   }
 
@@ -153,6 +161,7 @@ public class UserService {
 
     // Save the user to the database first
     User savedUser = userRepository.save(user);
+    eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId()));
 
     // Prepare the variables for the email template
     Map<String, Object> emailModel = new HashMap<>();
@@ -223,6 +232,7 @@ public class UserService {
     user.setDivision(division);
 
     userRepository.save(user);
+    eventPublisher.publishEvent(new UserChangedEvent(id));
   }
 
   @Transactional
@@ -282,6 +292,7 @@ public class UserService {
 
     // Delete the user
     userRepository.delete(user);
+    eventPublisher.publishEvent(new UserChangedEvent(id));
   }
 
   public UserDto getProfile(Integer userId) {
@@ -3,6 +3,7 @@ package lk.gov.mohe.adminsystem.util;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record ApiResponse<D>(
@@ -19,13 +20,28 @@ public record ApiResponse<D>(
     return new ApiResponse<>(message, null, null, errors);
   }
 
-  public static <T> ApiResponse<List<T>> paged(Page<T> page) {
+  public static <T> ApiResponse<List<T>> paged(Slice<T> slice) {
+    Pagination pagination =
+        (slice instanceof Page<T> page)
+            ? new Pagination(page.getNumber(), page.getSize(), page.getTotalPages())
+            : new Pagination(slice.getNumber(), slice.getSize(), null, null, slice.hasNext());
+    return new ApiResponse<>(null, slice.getContent(), pagination, null);
+  }
+
+  public static <T> ApiResponse<List<T>> windowed(
+      List<T> content, int pageSize, String nextCursor) {
     return new ApiResponse<>(
         null,
-        page.getContent(),
-        new Pagination(page.getNumber(), page.getSize(), page.getTotalPages()),
+        content,
+        new Pagination(null, pageSize, null, nextCursor, nextCursor != null),
         null);
   }
 
-  public record Pagination(int page, int pageSize, int totalPages) {}
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record Pagination(
+      Integer page, Integer pageSize, Integer totalPages, String nextCursor, Boolean hasNext) {
+    public Pagination(int page, int pageSize, int totalPages) {
+      this(page, pageSize, totalPages, null, null);
+    }
+  }
 }
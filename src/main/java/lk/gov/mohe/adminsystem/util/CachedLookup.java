@@ -0,0 +1,55 @@
+package lk.gov.mohe.adminsystem.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A small reference table held in memory until the service that owns the table evicts it. Meant
+ * for lookups such as names by id that are read on every request but rarely change.
+ */
+public abstract class CachedLookup<T> {
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicReference<T> value = new AtomicReference<>();
+
+  protected abstract T load();
+
+  public T get() {
+    T current = value.get();
+    if (current == null) {
+      long loadedGeneration = generation.get();
+      current = load();
+      // Don't keep a result that was loaded while an eviction happened. It is stored before the
+      // generation is checked again, so an eviction that starts after the check still clears it
+      value.set(current);
+      if (generation.get() != loadedGeneration) {
+        value.compareAndSet(current, null);
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Evicts now and again once the surrounding transaction completes, so a concurrent read cannot
+   * cache rows that are about to change. Evicts immediately outside a transaction.
+   */
+  public void evict() {
+    clear();
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            clear();
+          }
+        });
+  }
+
+  private void clear() {
+    generation.incrementAndGet();
+    value.set(null);
+  }
+}
@@ -0,0 +1,14 @@
+package lk.gov.mohe.adminsystem.util;
+
+/** How the total of a paged list is computed, selected with the {@code count} request param. */
+public enum CountMode {
+  /** Run a COUNT query with the same filters. */
+  EXACT,
+  /**
+   * Use the planner's row estimate for unfiltered lists. Filtered lists are not counted and, as
+   * with NONE, only report whether a next page exists.
+   */
+  ESTIMATE,
+  /** Skip the total and only report whether a next page exists. */
+  NONE
+}
@@ -0,0 +1,14 @@
+package lk.gov.mohe.adminsystem.util;
+
+import java.util.Locale;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/** Binds {@code count=exact|estimate|none} request params case-insensitively. */
+@Component
+public class CountModeConverter implements Converter<String, CountMode> {
+  @Override
+  public CountMode convert(String source) {
+    return CountMode.valueOf(source.trim().toUpperCase(Locale.ROOT));
+  }
+}
@@ -0,0 +1,61 @@
+package lk.gov.mohe.adminsystem.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Opaque cursor for a list scrolled by keyset on one property and then id. The cursor is the last
+ * row's keys, Base64url-encoded, so clients pass it back without depending on its contents.
+ *
+ * @param <K> type of the leading sort property, parsed back from its {@code toString()} form
+ */
+public final class KeysetCursor<K> {
+  private static final String ID = "id";
+  private static final String SEPARATOR = ":";
+
+  private final String property;
+  private final Function<String, K> parser;
+
+  public KeysetCursor(String property, Function<String, K> parser) {
+    this.property = property;
+    this.parser = parser;
+  }
+
+  /** Returns the position after the row the cursor names, or rejects the cursor with a 400. */
+  public ScrollPosition decode(String token) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      // The leading key may itself contain the separator, as an Instant does, but the id cannot
+      int separator = decoded.lastIndexOf(SEPARATOR);
+      K key = parser.apply(decoded.substring(0, separator));
+      Integer id = Integer.valueOf(decoded.substring(separator + 1));
+      return ScrollPosition.forward(Map.of(property, key, ID, id));
+    } catch (IllegalArgumentException | DateTimeException | IndexOutOfBoundsException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+  }
+
+  /** Returns the cursor after the last row of the window, or null if it is the last window. */
+  public String next(Window<?> window) {
+    if (!window.hasNext()) {
+      return null;
+    }
+    KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+    Map<String, Object> keys = position.getKeys();
+    return encode(keys.get(property), keys.get(ID));
+  }
+
+  private String encode(Object key, Object id) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((key + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,63 @@
+package lk.gov.mohe.adminsystem.util;
+
+import java.util.function.LongSupplier;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+public final class PagingUtil {
+  public static final int MAX_PAGE_SIZE = 100;
+
+  private PagingUtil() {}
+
+  /** Keeps a requested page size between 1 and {@link #MAX_PAGE_SIZE}. */
+  public static int clampPageSize(int pageSize) {
+    return Math.clamp(pageSize, 1, MAX_PAGE_SIZE);
+  }
+
+  /**
+   * Loads one page of {@code spec} (null matches everything). EXACT returns a {@code Page} with a
+   * counted total, ESTIMATE a {@code Page} whose total may be approximate, and NONE a {@code Slice}
+   * fetched without any count query. Planner estimates only describe whole tables, so ESTIMATE
+   * answers a filtered list like NONE, with a {@code Slice} and no total.
+   *
+   * @param fetchPaths associations to fetch with the rows when no COUNT query is run
+   */
+  public static <T> Slice<T> findAll(
+      JpaSpecificationExecutor<T> repository,
+      Specification<T> spec,
+      Pageable pageable,
+      CountMode count,
+      LongSupplier estimatedTotal,
+      String... fetchPaths) {
+    return switch (count) {
+      case EXACT -> repository.findAll(spec, pageable);
+      case NONE -> findSlice(repository, spec, pageable, fetchPaths);
+      case ESTIMATE -> {
+        Slice<T> slice = findSlice(repository, spec, pageable, fetchPaths);
+        // Counting a filtered list is the cost this mode avoids
+        if (spec != null) {
+          yield slice;
+        }
+        long seen = pageable.getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext()) {
+          yield new PageImpl<>(slice.getContent(), pageable, seen);
+        }
+        long estimate = estimatedTotal.getAsLong();
+        long total = (estimate < 0) ? repository.count(null) : Math.max(estimate, seen + 1);
+        yield new PageImpl<>(slice.getContent(), pageable, total);
+      }
+    };
+  }
+
+  private static <T> Slice<T> findSlice(
+      JpaSpecificationExecutor<T> repository,
+      Specification<T> spec,
+      Pageable pageable,
+      String... fetchPaths) {
+    Specification<T> finalSpec = (spec == null) ? (root, query, cb) -> cb.conjunction() : spec;
+    return repository.findBy(finalSpec, q -> q.project(fetchPaths).slice(pageable));
+  }
+}
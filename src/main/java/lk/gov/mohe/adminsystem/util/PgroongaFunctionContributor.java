@@ -0,0 +1,33 @@
+package lk.gov.mohe.adminsystem.util;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Renders PGroonga searches as the {@code &@} operator instead of calling the SQL function from
+ * V5, so the planner can use the PGroonga indexes. Registered in META-INF/services.
+ *
+ * <p>{@code &@} matches the text as a keyword. Unlike {@code &@~} it does not parse query syntax,
+ * so quotes, parentheses, {@code OR} or a leading {@code -} typed by a user are searched for as
+ * text instead of changing the match or failing the statement.
+ */
+public class PgroongaFunctionContributor implements FunctionContributor {
+  @Override
+  public void contributeFunctions(FunctionContributions functionContributions) {
+    BasicType<Boolean> booleanType =
+        functionContributions
+            .getTypeConfiguration()
+            .getBasicTypeRegistry()
+            .resolve(StandardBasicTypes.BOOLEAN);
+
+    functionContributions
+        .getFunctionRegistry()
+        .registerPattern("pgroonga_match", "(?1 &@ ?2)", booleanType);
+    // Matches any of three columns, for indexes built on ARRAY[col1, col2, col3]
+    functionContributions
+        .getFunctionRegistry()
+        .registerPattern("pgroonga_match_any", "(array[?1, ?2, ?3] &@ ?4)", booleanType);
+  }
+}
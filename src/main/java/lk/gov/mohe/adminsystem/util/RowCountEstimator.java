@@ -0,0 +1,30 @@
+package lk.gov.mohe.adminsystem.util;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Table;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RowCountEstimator {
+  private final EntityManager entityManager;
+
+  /**
+   * Returns the planner's row estimate for the entity's table, or -1 when Postgres has no estimate
+   * yet (the table has never been vacuumed or analyzed).
+   */
+  public long estimate(Class<?> entityClass) {
+    String tableName = entityClass.getAnnotation(Table.class).name();
+    List<?> result =
+        entityManager
+            .createNativeQuery("SELECT reltuples FROM pg_class WHERE oid = to_regclass(:tableName)")
+            .setParameter("tableName", tableName)
+            .getResultList();
+    if (result.isEmpty()) {
+      return -1;
+    }
+    return ((Number) result.getFirst()).longValue();
+  }
+}
@@ -0,0 +1,3 @@
+-- Supports keyset pagination of a letter's events ordered by (created_at DESC, id DESC).
+-- letter_events has had no index on letter_id since it was recreated in V2.
+CREATE INDEX idx_letter_events_letter_created_at_id ON letter_events (letter_id, created_at DESC, id DESC);
@@ -0,0 +1,15 @@
+-- Slots for attachments that clients upload straight to MinIO with a presigned PUT.
+-- A row lives until the upload is finalized into an attachment or it expires.
+CREATE TABLE attachment_upload_sessions
+(
+    id           UUID PRIMARY KEY,
+    user_id      INT          NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    object_name  VARCHAR(255) NOT NULL,
+    file_name    VARCHAR(255) NOT NULL,
+    content_type VARCHAR(50)  NOT NULL,
+    file_size    BIGINT       NOT NULL CHECK (file_size > 0),
+    created_at   TIMESTAMPTZ DEFAULT now(),
+    expires_at   TIMESTAMPTZ  NOT NULL
+);
+
+CREATE INDEX idx_attachment_upload_sessions_expires_at ON attachment_upload_sessions (expires_at);
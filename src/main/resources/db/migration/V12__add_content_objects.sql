@@ -0,0 +1,10 @@
+-- Attachment content stored once per distinct SHA-256. Every attachment whose file_path equals
+-- object_name shares the object; reference_count is the number of such attachments.
+CREATE TABLE content_objects
+(
+    sha256          VARCHAR(64) PRIMARY KEY,
+    object_name     VARCHAR(255) NOT NULL UNIQUE,
+    file_size       BIGINT       NOT NULL,
+    reference_count INT          NOT NULL CHECK (reference_count >= 0),
+    created_at      TIMESTAMPTZ DEFAULT now()
+);
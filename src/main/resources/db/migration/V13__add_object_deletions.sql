@@ -0,0 +1,16 @@
+-- Outbox of storage objects to remove. Rows are written in the transaction that drops the last
+-- reference and are worked off in batches by a background job, with backoff on failure.
+CREATE TABLE object_deletions
+(
+    id              SERIAL PRIMARY KEY,
+    object_name     VARCHAR(255) NOT NULL,
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    last_error      TEXT,
+    created_at      TIMESTAMPTZ DEFAULT now()
+);
+
+CREATE INDEX idx_object_deletions_next_attempt_at ON object_deletions (next_attempt_at);
+
+-- Lets the orphan reconciler check listed objects against attachments without a full scan
+CREATE INDEX idx_attachments_file_path ON attachments (file_path);
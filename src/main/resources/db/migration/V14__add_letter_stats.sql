@@ -0,0 +1,16 @@
+-- Letter counts per status, priority and assigned division (0 when unassigned). The table has one
+-- row per combination in use, so dashboard totals are summed from a few dozen rows instead of
+-- counting the letters table. Rows are kept current by the service layer and rebuilt on a schedule.
+CREATE TABLE letter_stats
+(
+    status       letter_status_enum NOT NULL,
+    priority     priority_enum      NOT NULL,
+    division_id  INT                NOT NULL DEFAULT 0,
+    letter_count BIGINT             NOT NULL DEFAULT 0,
+    PRIMARY KEY (status, priority, division_id)
+);
+
+INSERT INTO letter_stats (status, priority, division_id, letter_count)
+SELECT status, priority, COALESCE(assigned_division_id, 0), COUNT(*)
+FROM letters
+GROUP BY status, priority, COALESCE(assigned_division_id, 0);
@@ -0,0 +1,28 @@
+-- Outbox of letter events, written in the transaction that records the event. A relay hands the
+-- rows to in-process listeners in batches and stores how far it got in outbox_offsets.
+--
+-- Rows are relayed in (tx_id, id) order and only once every transaction older than them has
+-- finished, so a row committed late by a long transaction is never skipped by the offset.
+CREATE TABLE letter_event_outbox
+(
+    id              BIGSERIAL PRIMARY KEY,
+    tx_id           BIGINT          NOT NULL DEFAULT pg_current_xact_id()::text::bigint,
+    letter_event_id INT             NOT NULL,
+    letter_id       INT             NOT NULL,
+    event_type      event_type_enum NOT NULL,
+    created_at      TIMESTAMPTZ     NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_letter_event_outbox_tx_id_id ON letter_event_outbox (tx_id, id);
+CREATE INDEX idx_letter_event_outbox_created_at ON letter_event_outbox (created_at);
+
+CREATE TABLE outbox_offsets
+(
+    name       VARCHAR(64) PRIMARY KEY,
+    tx_id      BIGINT      NOT NULL DEFAULT 0,
+    last_id    BIGINT      NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+INSERT INTO outbox_offsets (name)
+VALUES ('letter_events');
@@ -0,0 +1,7 @@
+-- pgroonga_score only ranks rows matched through an index that also covers the primary key, so
+-- the V8 index is rebuilt with id. Searches still match on ARRAY[reference, subject, content].
+DROP INDEX idx_pgroonga_letters_text;
+
+CREATE INDEX idx_pgroonga_letters_text ON letters
+    USING pgroonga (id, (ARRAY [reference, subject, content]))
+    WITH (tokenizer = 'TokenNgram("unify_alphabet", false, "unify_symbol", false, "unify_digit", false)');
@@ -0,0 +1,7 @@
+-- pgroonga_score only ranks rows matched through an index that also covers the primary key, so
+-- the V5 index on attachment text is rebuilt with attachment_id. Without it every score was 0 and
+-- the best snippet of a paper was picked arbitrarily.
+DROP INDEX idx_pgroonga_cabinet_paper_attachment_contents;
+
+CREATE INDEX idx_pgroonga_cabinet_paper_attachment_contents ON cabinet_paper_attachment_contents
+    USING pgroonga (attachment_id, text);
@@ -0,0 +1,2 @@
+-- Supports the sweep that indexes recent attachments whose text extraction was skipped
+CREATE INDEX idx_attachments_created_at ON attachments (created_at);
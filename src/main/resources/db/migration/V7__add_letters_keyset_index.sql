@@ -0,0 +1,3 @@
+-- Supports cursor pagination of letters ordered by (received_date DESC, id DESC)
+DROP INDEX IF EXISTS idx_letters_received_date;
+CREATE INDEX idx_letters_received_date_id ON letters (received_date DESC, id DESC);
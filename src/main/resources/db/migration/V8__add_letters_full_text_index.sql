@@ -0,0 +1,5 @@
+-- Full-text search over letters through PGroonga. TokenNgram keeps alphabets and digits as
+-- n-grams so partial references such as 'MOHE/2024' still match, as the old LIKE search did.
+CREATE INDEX idx_pgroonga_letters_text ON letters
+    USING pgroonga ((ARRAY [reference, subject, content]))
+    WITH (tokenizer = 'TokenNgram("unify_alphabet", false, "unify_symbol", false, "unify_digit", false)');
@@ -0,0 +1,39 @@
+-- Trigram indexes for the "contains" filters, which all search with lower(column) LIKE '%term%'
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Sender and receiver filters match any of several JSONB fields. Folding them into one immutable
+-- search text lets a single index serve each filter instead of one index per field.
+CREATE OR REPLACE FUNCTION letter_sender_search_text(details JSONB)
+    RETURNS TEXT AS
+$$
+SELECT lower(coalesce(details ->> 'name', '') || E'\n' ||
+             coalesce(details ->> 'address', '') || E'\n' ||
+             coalesce(details ->> 'email', '') || E'\n' ||
+             coalesce(details ->> 'phone_number', ''))
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION letter_receiver_search_text(details JSONB)
+    RETURNS TEXT AS
+$$
+SELECT lower(coalesce(details ->> 'name', '') || E'\n' ||
+             coalesce(details ->> 'designation', '') || E'\n' ||
+             coalesce(details ->> 'division_name', ''))
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE INDEX idx_letters_sender_search_trgm ON letters
+    USING GIN (letter_sender_search_text(sender_details) gin_trgm_ops);
+CREATE INDEX idx_letters_receiver_search_trgm ON letters
+    USING GIN (letter_receiver_search_text(receiver_details) gin_trgm_ops);
+
+CREATE INDEX idx_users_username_trgm ON users USING GIN (lower(username) gin_trgm_ops);
+CREATE INDEX idx_users_email_trgm ON users USING GIN (lower(email) gin_trgm_ops);
+CREATE INDEX idx_users_full_name_trgm ON users USING GIN (lower(full_name) gin_trgm_ops);
+CREATE INDEX idx_users_phone_number_trgm ON users USING GIN (lower(phone_number) gin_trgm_ops);
+
+CREATE INDEX idx_cabinet_papers_reference_id_trgm ON cabinet_papers USING GIN (lower(reference_id) gin_trgm_ops);
+CREATE INDEX idx_cabinet_papers_subject_trgm ON cabinet_papers USING GIN (lower(subject) gin_trgm_ops);
+CREATE INDEX idx_cabinet_papers_summary_trgm ON cabinet_papers USING GIN (lower(summary) gin_trgm_ops);
+
+CREATE INDEX idx_divisions_name_trgm ON divisions USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX idx_roles_name_trgm ON roles USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX idx_cabinet_paper_categories_name_trgm ON cabinet_paper_categories USING GIN (lower(name) gin_trgm_ops);
@@ -0,0 +1,182 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperAttachmentContent;
+import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperAttachmentContentRepository;
+import lk.gov.mohe.adminsystem.letter.LetterAttachmentContent;
+import lk.gov.mohe.adminsystem.letter.LetterAttachmentContentRepository;
+import lk.gov.mohe.adminsystem.storage.MinioStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentContentIndexerTest {
+
+    @Mock
+    private AttachmentRepository attachmentRepository;
+    @Mock
+    private LetterAttachmentContentRepository letterAttachmentContentRepository;
+    @Mock
+    private CabinetPaperAttachmentContentRepository cabinetPaperAttachmentContentRepository;
+    @Mock
+    private MinioStorageService storageService;
+
+    private AttachmentContentIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        indexer = new AttachmentContentIndexer(
+                attachmentRepository,
+                letterAttachmentContentRepository,
+                cabinetPaperAttachmentContentRepository,
+                storageService,
+                new AttachmentTextExtractor(1000));
+    }
+
+    @Test
+    void index_ShouldStoreLetterEventAttachmentTextAsLetterContent() {
+        Attachment attachment = attachment(ParentTypeEnum.LETTER_EVENT, "text/plain");
+        when(attachmentRepository.findById(7)).thenReturn(Optional.of(attachment));
+        when(storageService.download("events/reply.txt"))
+                .thenReturn(new ByteArrayInputStream("Reply text".getBytes(StandardCharsets.UTF_8)));
+
+        indexer.index(7);
+
+        ArgumentCaptor<LetterAttachmentContent> captor = ArgumentCaptor.forClass(LetterAttachmentContent.class);
+        verify(letterAttachmentContentRepository).save(captor.capture());
+        assertSame(attachment, captor.getValue().getAttachment());
+        assertEquals("Reply text", captor.getValue().getText());
+        verifyNoInteractions(cabinetPaperAttachmentContentRepository);
+    }
+
+    @Test
+    void index_ShouldSkipDownload_WhenTypeIsNotSupported() {
+        when(attachmentRepository.findById(7)).thenReturn(Optional.of(attachment(ParentTypeEnum.CABINET_PAPER, "image/png")));
+
+        indexer.index(7);
+
+        verifyNoInteractions(storageService, cabinetPaperAttachmentContentRepository);
+    }
+
+    @Test
+    void index_ShouldNotStoreAnything_WhenDownloadFails() {
+        when(attachmentRepository.findById(7)).thenReturn(Optional.of(attachment(ParentTypeEnum.CABINET_PAPER, "text/plain")));
+        when(storageService.download(any())).thenThrow(ResponseStatusException.class);
+
+        indexer.index(7);
+
+        verify(cabinetPaperAttachmentContentRepository, never()).save(any(CabinetPaperAttachmentContent.class));
+    }
+
+    @Test
+    void index_ShouldSkipDownload_WhenAttachmentIsAlreadyIndexed() {
+        when(attachmentRepository.findById(7)).thenReturn(Optional.of(attachment(ParentTypeEnum.LETTER, "text/plain")));
+        when(letterAttachmentContentRepository.existsById(7)).thenReturn(true);
+
+        indexer.index(7);
+
+        verifyNoInteractions(storageService);
+        verify(letterAttachmentContentRepository, never()).save(any(LetterAttachmentContent.class));
+    }
+
+    @Test
+    void index_ShouldStoreEmptyContent_WhenFileHasNoText() {
+        when(attachmentRepository.findById(7)).thenReturn(Optional.of(attachment(ParentTypeEnum.CABINET_PAPER, "text/plain")));
+        when(storageService.download("events/reply.txt")).thenReturn(new ByteArrayInputStream(new byte[0]));
+
+        indexer.index(7);
+
+        ArgumentCaptor<CabinetPaperAttachmentContent> captor = ArgumentCaptor.forClass(CabinetPaperAttachmentContent.class);
+        verify(cabinetPaperAttachmentContentRepository).save(captor.capture());
+        assertEquals("", captor.getValue().getText());
+    }
+
+    @Test
+    void onAttachmentsSaved_ShouldNotBlock_WhenQueueIsFull() throws InterruptedException {
+        // Given
+        startExecutor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(attachmentRepository.findById(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return Optional.empty();
+        });
+        indexer.onAttachmentsSaved(new AttachmentsSavedEvent(List.of(1)));
+        started.await();
+
+        // When
+        // One attachment fills the queue and the next one is left for the sweep
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> indexer.onAttachmentsSaved(new AttachmentsSavedEvent(List.of(2, 3))));
+
+        // Then
+        release.countDown();
+        indexer.stopExecutor();
+        verify(attachmentRepository).findById(1);
+        verify(attachmentRepository).findById(2);
+        verify(attachmentRepository, never()).findById(3);
+    }
+
+    @Test
+    void indexSkippedAttachments_ShouldQueueUnindexedAttachments_UpToFreeQueueSpace() {
+        // Given
+        startExecutor(1, 10);
+        ReflectionTestUtils.setField(indexer, "sweepInterval", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(indexer, "sweepLookback", Duration.ofHours(24));
+        when(attachmentRepository.findUnindexedIds(eq(AttachmentTextExtractor.SUPPORTED_TYPES), any(), any(), eq(10)))
+                .thenReturn(List.of(7));
+        when(attachmentRepository.findById(7)).thenReturn(Optional.of(attachment(ParentTypeEnum.LETTER, "text/plain")));
+        when(storageService.download("events/reply.txt"))
+                .thenReturn(new ByteArrayInputStream("Skipped text".getBytes(StandardCharsets.UTF_8)));
+
+        // When
+        indexer.indexSkippedAttachments();
+        indexer.stopExecutor();
+
+        // Then
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> before = ArgumentCaptor.forClass(Instant.class);
+        verify(attachmentRepository).findUnindexedIds(any(), since.capture(), before.capture(), anyInt());
+        assertEquals(Duration.ofHours(24).minusMinutes(10), Duration.between(since.getValue(), before.getValue()));
+        verify(letterAttachmentContentRepository).save(any(LetterAttachmentContent.class));
+    }
+
+    private void startExecutor(int threads, int queueCapacity) {
+        ReflectionTestUtils.setField(indexer, "threads", threads);
+        ReflectionTestUtils.setField(indexer, "queueCapacity", queueCapacity);
+        indexer.startExecutor();
+    }
+
+    private Attachment attachment(ParentTypeEnum parentType, String fileType) {
+        Attachment attachment = new Attachment();
+        attachment.setId(7);
+        attachment.setParentType(parentType);
+        attachment.setParentId(1);
+        attachment.setFileName("reply.txt");
+        attachment.setFilePath("events/reply.txt");
+        attachment.setFileType(fileType);
+        return attachment;
+    }
+}
@@ -0,0 +1,156 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import lk.gov.mohe.adminsystem.storage.MinioStorageService;
+import lk.gov.mohe.adminsystem.storage.StoredObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentControllerTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private AttachmentService attachmentService;
+    @Mock
+    private MinioStorageService storageService;
+
+    private AttachmentController attachmentController;
+
+    private final JwtAuthenticationToken authentication = new JwtAuthenticationToken(
+            Jwt.withTokenValue("token").header("alg", "RS256").claim("userId", 1).claim("divisionId", 2).build(),
+            List.of());
+
+    @BeforeEach
+    void setUp() {
+        attachmentController = new AttachmentController(
+                attachmentService, new AttachmentDownloads(storageService, 10, Duration.ofMinutes(1)));
+        mockMvc = MockMvcBuilders.standaloneSetup(attachmentController).build();
+
+        lenient().when(attachmentService.getReadableAttachment(eq(5), eq(1), eq(2), any()))
+                .thenReturn(new AttachmentService.ReadableAttachment(
+                        attachment(), new StoredObject("abc", CONTENT.length, "application/pdf")));
+    }
+
+    @Test
+    void getAttachmentContent_ShouldStreamWholeObject_WithETag() throws Exception {
+        when(storageService.download("letters/scan.pdf", 0, 10)).thenReturn(new ByteArrayInputStream(CONTENT));
+
+        MvcResult result = mockMvc.perform(get("/attachments/5/content").principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/pdf"))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void getAttachmentContent_ShouldStreamObjectLargerThanOneChunk() throws Exception {
+        byte[] large = new byte[200_000];
+        Arrays.fill(large, (byte) 'x');
+        when(attachmentService.getReadableAttachment(eq(5), eq(1), eq(2), any()))
+                .thenReturn(new AttachmentService.ReadableAttachment(
+                        attachment(), new StoredObject("abc", large.length, "application/pdf")));
+        when(storageService.download("letters/scan.pdf", 0, large.length)).thenReturn(new ByteArrayInputStream(large));
+
+        MvcResult result = mockMvc.perform(get("/attachments/5/content").principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, large.length))
+                .andExpect(content().bytes(large));
+    }
+
+    @Test
+    void getAttachmentContent_ShouldStreamWholeObject_WhenRangeIsMalformed() throws Exception {
+        when(storageService.download("letters/scan.pdf", 0, 10)).thenReturn(new ByteArrayInputStream(CONTENT));
+
+        MvcResult result = mockMvc.perform(get("/attachments/5/content")
+                        .principal(authentication)
+                        .header(HttpHeaders.RANGE, "bytes=5-2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void getAttachmentContent_ShouldFetchOnlyRequestedRange() throws Exception {
+        when(storageService.download("letters/scan.pdf", 2, 4))
+                .thenReturn(new ByteArrayInputStream("2345".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mockMvc.perform(get("/attachments/5/content")
+                        .principal(authentication)
+                        .header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void getAttachmentContent_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/attachments/5/content")
+                        .principal(authentication)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified());
+
+        verify(storageService, never()).download(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void getAttachmentContent_ShouldRejectUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/attachments/5/content")
+                        .principal(authentication)
+                        .header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+
+        verify(storageService, never()).download(anyString(), anyLong(), anyLong());
+    }
+
+    private Attachment attachment() {
+        Attachment attachment = new Attachment();
+        attachment.setId(5);
+        attachment.setFileName("scan.pdf");
+        attachment.setFilePath("letters/scan.pdf");
+        attachment.setFileType("application/pdf");
+        return attachment;
+    }
+}
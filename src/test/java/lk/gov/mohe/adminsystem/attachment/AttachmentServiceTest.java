@@ -0,0 +1,202 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperService;
+import lk.gov.mohe.adminsystem.letter.LetterService;
+import lk.gov.mohe.adminsystem.security.CurrentUserProvider;
+import lk.gov.mohe.adminsystem.storage.ContentDigest;
+import lk.gov.mohe.adminsystem.storage.MinioStorageService;
+import lk.gov.mohe.adminsystem.storage.StoredObject;
+import lk.gov.mohe.adminsystem.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentServiceTest {
+
+    @Mock
+    private AttachmentRepository attachmentRepository;
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+    @Mock
+    private LetterService letterService;
+    @Mock
+    private CabinetPaperService cabinetPaperService;
+    @Mock
+    private MinioStorageService storageService;
+    @Mock
+    private CurrentUserProvider currentUserProvider;
+
+    @InjectMocks
+    private AttachmentService attachmentService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(attachmentService, "acceptedMimeTypes", Set.of("application/pdf"));
+        ReflectionTestUtils.setField(attachmentService, "maxDirectUploadSize", DataSize.ofMegabytes(200));
+        ReflectionTestUtils.setField(attachmentService, "uploadUrlValiditySeconds", 900);
+        ReflectionTestUtils.setField(attachmentService, "uploadSessionTtlSeconds", 3600);
+    }
+
+    @Test
+    void createUploadSession_ShouldSaveSessionAndReturnPresignedUrl() {
+        // Given
+        when(currentUserProvider.getCurrentUserReference()).thenReturn(new User());
+        when(storageService.buildObjectName("uploads", "annex.pdf")).thenReturn("uploads/annex-1.pdf");
+        when(storageService.getUploadUrl("uploads/annex-1.pdf", 900)).thenReturn("http://minio/upload");
+
+        // When
+        UploadSessionDto result = attachmentService.createUploadSession(
+                new CreateUploadSessionRequestDto("annex.pdf", "application/pdf", 1024L));
+
+        // Then
+        ArgumentCaptor<UploadSession> captor = ArgumentCaptor.forClass(UploadSession.class);
+        verify(uploadSessionRepository).save(captor.capture());
+        UploadSession saved = captor.getValue();
+        assertEquals(saved.getId(), result.id());
+        assertEquals("uploads/annex-1.pdf", saved.getObjectName());
+        assertEquals(1024L, saved.getFileSize());
+        assertEquals("http://minio/upload", result.uploadUrl());
+        assertTrue(result.expiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void createUploadSession_ShouldRejectFilesOverTheLimit() {
+        // When
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> attachmentService.createUploadSession(new CreateUploadSessionRequestDto(
+                        "huge.pdf", "application/pdf", DataSize.ofMegabytes(201).toBytes())));
+
+        // Then
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exception.getStatusCode());
+        verify(uploadSessionRepository, never()).save(any());
+    }
+
+    @Test
+    void finalizeUploads_ShouldAttachServerOwnedCopyToLetterAndDeleteSessions() {
+        // Given
+        UploadSession session = session(1024L);
+        when(uploadSessionRepository.findAllByIdInAndUserId(List.of(session.getId()), 7))
+                .thenReturn(List.of(session));
+        when(storageService.stat(session.getObjectName()))
+                .thenReturn(new StoredObject("etag", 1024L, "application/pdf"));
+        ContentDigest digest = new ContentDigest("abc123", "%PDF-1.7\n".getBytes());
+        when(storageService.digest(session.getObjectName(), "etag", FileSignatures.LENGTH)).thenReturn(digest);
+        when(storageService.adoptUpload(session.getObjectName(), "etag", digest, 1024L))
+                .thenReturn("content/ab/abc123");
+        // The attachment points at the copy, not at the name the client can still upload to
+        List<UploadedObject> expectedUploads = List.of(
+                new UploadedObject("content/ab/abc123", "annex.pdf", "application/pdf"));
+        when(letterService.addUploadedAttachments(eq(3), eq(expectedUploads), eq(7), eq(2), anyCollection()))
+                .thenReturn(List.of(11));
+
+        // When
+        List<Integer> result = attachmentService.finalizeUploads(
+                new FinalizeUploadsRequestDto(ParentTypeEnum.LETTER, 3, List.of(session.getId())),
+                7, 2, List.of("letter:all:add:attachments"));
+
+        // Then
+        assertEquals(List.of(11), result);
+        verify(uploadSessionRepository).deleteAll(List.of(session));
+    }
+
+    @Test
+    void finalizeUploads_ShouldRejectUpload_WhenSizeDiffersFromDeclared() {
+        // Given
+        UploadSession session = session(1024L);
+        when(uploadSessionRepository.findAllByIdInAndUserId(List.of(session.getId()), 7))
+                .thenReturn(List.of(session));
+        when(storageService.stat(session.getObjectName()))
+                .thenReturn(new StoredObject("etag", 4096L, "application/pdf"));
+
+        // When
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> attachmentService.finalizeUploads(
+                        new FinalizeUploadsRequestDto(ParentTypeEnum.LETTER, 3, List.of(session.getId())),
+                        7, 2, List.of("letter:all:add:attachments")));
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(letterService);
+        verify(uploadSessionRepository, never()).deleteAll(any());
+    }
+
+    @Test
+    void finalizeUploads_ShouldRejectUpload_WhenContentIsNotTheDeclaredType() {
+        // Given
+        UploadSession session = session(1024L);
+        when(uploadSessionRepository.findAllByIdInAndUserId(List.of(session.getId()), 7))
+                .thenReturn(List.of(session));
+        // The client declared and sent application/pdf, but uploaded an executable
+        when(storageService.stat(session.getObjectName()))
+                .thenReturn(new StoredObject("etag", 1024L, "application/pdf"));
+        when(storageService.digest(session.getObjectName(), "etag", FileSignatures.LENGTH))
+                .thenReturn(new ContentDigest("abc123", new byte[] {0x4D, 0x5A, (byte) 0x90, 0x00}));
+
+        // When
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> attachmentService.finalizeUploads(
+                        new FinalizeUploadsRequestDto(ParentTypeEnum.LETTER, 3, List.of(session.getId())),
+                        7, 2, List.of("letter:all:add:attachments")));
+
+        // Then
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, exception.getStatusCode());
+        verify(storageService, never()).adoptUpload(any(), any(), any(), anyLong());
+        verifyNoInteractions(letterService);
+    }
+
+    @Test
+    void fileSignatures_ShouldMatchLeadingBytesOfDeclaredType() {
+        assertTrue(FileSignatures.matches("application/pdf", "%PDF-1.4".getBytes()));
+        assertTrue(FileSignatures.matches("image/jpeg", new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0x00}));
+        assertTrue(FileSignatures.matches("text/plain", "Minutes of the meeting".getBytes()));
+        assertFalse(FileSignatures.matches("image/png", "%PDF-1.4".getBytes()));
+        assertFalse(FileSignatures.matches("application/pdf", "%PD".getBytes()));
+        assertFalse(FileSignatures.matches("text/plain", new byte[] {0x50, 0x4B, 0x03, 0x04, 0x00}));
+    }
+
+    @Test
+    void finalizeUploads_ShouldReturnNotFound_WhenSessionBelongsToAnotherUser() {
+        // Given
+        UUID sessionId = UUID.randomUUID();
+        when(uploadSessionRepository.findAllByIdInAndUserId(List.of(sessionId), 7)).thenReturn(List.of());
+
+        // When
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> attachmentService.finalizeUploads(
+                        new FinalizeUploadsRequestDto(ParentTypeEnum.CABINET_PAPER, 3, List.of(sessionId)),
+                        7, 2, List.of("cabinet:update")));
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        verifyNoInteractions(storageService, cabinetPaperService);
+    }
+
+    private UploadSession session(long fileSize) {
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID());
+        session.setObjectName("uploads/annex-1.pdf");
+        session.setFileName("annex.pdf");
+        session.setContentType("application/pdf");
+        session.setFileSize(fileSize);
+        session.setExpiresAt(Instant.now().plusSeconds(600));
+        return session;
+    }
+}
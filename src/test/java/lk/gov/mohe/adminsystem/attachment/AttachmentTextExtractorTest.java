@@ -0,0 +1,117 @@
+package lk.gov.mohe.adminsystem.attachment;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttachmentTextExtractorTest {
+
+    private final AttachmentTextExtractor extractor = new AttachmentTextExtractor(1000);
+
+    @Test
+    void extract_ShouldReadPlainText() throws IOException {
+        Optional<String> text = extractor.extract(AttachmentTextExtractor.TEXT_PLAIN, stream("Budget circular 2025"));
+
+        assertEquals(Optional.of("Budget circular 2025"), text);
+    }
+
+    @Test
+    void extract_ShouldTruncatePlainTextToMaxChars() throws IOException {
+        AttachmentTextExtractor smallExtractor = new AttachmentTextExtractor(6);
+
+        Optional<String> text = smallExtractor.extract(AttachmentTextExtractor.TEXT_PLAIN, stream("Budget circular"));
+
+        assertEquals(Optional.of("Budget"), text);
+    }
+
+    @Test
+    void extract_ShouldReadPlainTextLongerThanReadBuffer() throws IOException {
+        String longText = "a".repeat(20_000) + "b".repeat(20_000);
+        AttachmentTextExtractor largeExtractor = new AttachmentTextExtractor(30_000);
+
+        Optional<String> text = largeExtractor.extract(AttachmentTextExtractor.TEXT_PLAIN, stream(longText));
+
+        assertEquals(Optional.of(longText.substring(0, 30_000)), text);
+    }
+
+    @Test
+    void extract_ShouldReadParagraphsFromDocx() throws IOException {
+        String documentXml = "<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">"
+                + "<w:body><w:p><w:r><w:t>Cabinet</w:t></w:r><w:r><w:t xml:space=\"preserve\"> memorandum</w:t></w:r></w:p>"
+                + "<w:p><w:r><w:t>Second paragraph</w:t></w:r></w:p></w:body></w:document>";
+
+        Optional<String> text = extractor.extract(AttachmentTextExtractor.DOCX, new ByteArrayInputStream(docx(documentXml)));
+
+        assertEquals(Optional.of("Cabinet memorandum\nSecond paragraph"), text);
+    }
+
+    @Test
+    void extract_ShouldReadTextFromPdf() throws IOException {
+        Optional<String> text = extractor.extract(AttachmentTextExtractor.PDF, new ByteArrayInputStream(pdf("Scanned submission")));
+
+        assertEquals(Optional.of("Scanned submission"), text);
+    }
+
+    @Test
+    void extract_ShouldStopReadingPdfPages_AtMaxChars() throws IOException {
+        AttachmentTextExtractor smallExtractor = new AttachmentTextExtractor(12);
+
+        Optional<String> text = smallExtractor.extract(
+                AttachmentTextExtractor.PDF, new ByteArrayInputStream(pdf("First page", "Second page", "Third page")));
+
+        assertEquals(Optional.of("First page\nS"), text);
+    }
+
+    @Test
+    void extract_ShouldReturnEmpty_WhenTypeIsNotSupported() throws IOException {
+        assertFalse(extractor.supports("image/png"));
+        assertTrue(extractor.extract("image/png", stream("binary")).isEmpty());
+    }
+
+    private ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] docx(String documentXml) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("[Content_Types].xml"));
+            zip.write("<Types/>".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("word/document.xml"));
+            zip.write(documentXml.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] pdf(String... pageTexts) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            for (String text : pageTexts) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText(text);
+                    content.endText();
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package lk.gov.mohe.adminsystem.cabinetpaper;
+
+import lk.gov.mohe.adminsystem.TestcontainersConfiguration;
+import lk.gov.mohe.adminsystem.attachment.Attachment;
+import lk.gov.mohe.adminsystem.division.Division;
+import lk.gov.mohe.adminsystem.role.Role;
+import lk.gov.mohe.adminsystem.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.config.on-not-found=ignore")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestcontainersConfiguration.class, CabinetPaperContentSearch.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class CabinetPaperContentSearchTest {
+
+    @Autowired
+    private CabinetPaperContentSearch contentSearch;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private CabinetPaper contentOnly;
+    private CabinetPaper subjectOnly;
+
+    @BeforeEach
+    void setUp() {
+        Division division = new Division();
+        division.setName("Search Division");
+        entityManager.persist(division);
+
+        Role role = new Role();
+        role.setName("Search Role");
+        entityManager.persist(role);
+
+        User user = new User();
+        user.setUsername("search-user");
+        user.setPassword("password");
+        user.setRole(role);
+        user.setDivision(division);
+        entityManager.persist(user);
+
+        contentOnly = persistPaper("SEARCH-1", "Budget proposal", user);
+        subjectOnly = persistPaper("SEARCH-2", "Irrigation plan", user);
+
+        Attachment attachment = new Attachment();
+        attachment.setFileName("annex.pdf");
+        attachment.setFilePath("cabinet-papers/annex.pdf");
+        attachment.setFileType("application/pdf");
+        attachment.attachToParent(contentOnly);
+        entityManager.persist(attachment);
+
+        CabinetPaperAttachmentContent content = new CabinetPaperAttachmentContent();
+        content.setAttachment(attachment);
+        content.setText("The annex describes the irrigation works planned for the dry zone.");
+        entityManager.persist(content);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findMatches_ShouldIncludePapersMatchedOnlyByAttachmentText_WithSnippets() {
+        CabinetPaperSearchParams params = new CabinetPaperSearchParams();
+        params.setQuery("irrigation");
+
+        List<CabinetPaperContentSearch.Match> matches = contentSearch.findMatches(params, 0, 10);
+
+        assertEquals(2, contentSearch.countMatches(params));
+        // The attachment hit carries a PGroonga score, so it ranks above the subject-only match
+        assertEquals(List.of(contentOnly.getId(), subjectOnly.getId()),
+                matches.stream().map(CabinetPaperContentSearch.Match::paperId).toList());
+        assertFalse(matches.get(0).snippets().isEmpty());
+        assertTrue(matches.get(0).snippets().get(0).contains("keyword"));
+        assertTrue(matches.get(1).snippets().isEmpty());
+    }
+
+    @Test
+    void findMatches_ShouldApplyFiltersToContentMatches() {
+        CabinetPaperSearchParams params = new CabinetPaperSearchParams();
+        params.setQuery("irrigation");
+        params.setStatus(CabinetPaperStatusEnum.SUBMITTED);
+
+        assertEquals(List.of(subjectOnly.getId()),
+                contentSearch.findMatches(params, 0, 10).stream()
+                        .map(CabinetPaperContentSearch.Match::paperId).toList());
+    }
+
+    @Test
+    void findMatches_ShouldScoreContentHits_AndTakeSnippetFromBestContent() {
+        Attachment second = new Attachment();
+        second.setFileName("works.pdf");
+        second.setFilePath("cabinet-papers/works.pdf");
+        second.setFileType("application/pdf");
+        second.attachToParent(entityManager.find(CabinetPaper.class, contentOnly.getId()));
+        entityManager.persist(second);
+
+        CabinetPaperAttachmentContent content = new CabinetPaperAttachmentContent();
+        content.setAttachment(second);
+        content.setText("Irrigation canals: irrigation tanks, irrigation channels and irrigation pumps.");
+        entityManager.persist(content);
+        entityManager.flush();
+        entityManager.clear();
+
+        CabinetPaperSearchParams params = new CabinetPaperSearchParams();
+        params.setQuery("irrigation");
+        params.setStatus(CabinetPaperStatusEnum.DRAFT);
+
+        List<CabinetPaperContentSearch.Match> matches = contentSearch.findMatches(params, 0, 10);
+
+        assertEquals(1, contentSearch.countMatches(params));
+        assertTrue(matches.get(0).score() > 0);
+        assertTrue(matches.get(0).snippets().get(0).contains("canals"));
+    }
+
+    @Test
+    void findMatches_ShouldSearchQuerySyntaxAsPlainText() {
+        CabinetPaperSearchParams params = new CabinetPaperSearchParams();
+
+        // Unbalanced quotes and parentheses, a bare OR and a leading minus are not query syntax
+        for (String text : new String[] {"\"irrigation", "(dry", "OR", "-irrigation"}) {
+            params.setQuery(text);
+            assertDoesNotThrow(() -> contentSearch.findMatches(params, 0, 10), text);
+            assertDoesNotThrow(() -> contentSearch.countMatches(params), text);
+        }
+        params.setQuery("irrigation OR budget");
+        assertEquals(0, contentSearch.countMatches(params));
+    }
+
+    private CabinetPaper persistPaper(String referenceId, String subject, User user) {
+        CabinetPaper paper = new CabinetPaper();
+        paper.setReferenceId(referenceId);
+        paper.setSubject(subject);
+        paper.setStatus(referenceId.endsWith("2")
+                ? CabinetPaperStatusEnum.SUBMITTED : CabinetPaperStatusEnum.DRAFT);
+        paper.setSubmittedByUser(user);
+        entityManager.persist(paper);
+        return paper;
+    }
+}
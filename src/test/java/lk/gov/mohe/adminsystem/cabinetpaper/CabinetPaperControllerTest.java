@@ -39,7 +39,7 @@ class CabinetPaperControllerTest {
     private CabinetPaperController cabinetPaperController;
 
     private final CabinetPaperCategoryDto categoryDto = new CabinetPaperCategoryDto(1, "Test Category", "Desc");
-    private final CabinetPaperDto paperDto = new CabinetPaperDto(1, "REF123", "Title", "Summary", categoryDto, CabinetPaperStatusEnum.DRAFT, null, 1L, Collections.emptyList(), null, null);
+    private final CabinetPaperDto paperDto = new CabinetPaperDto(1, "REF123", "Title", "Summary", categoryDto, CabinetPaperStatusEnum.DRAFT, null, 1L, Collections.emptyList(), null, null, null, null);
     private final CreateCabinetPaperRequestDto createDto = new CreateCabinetPaperRequestDto("REF456", "New Subject", "Summary text", 1, CabinetPaperStatusEnum.DRAFT);
     private final UpdateCabinetPaperRequestDto updateDto = new UpdateCabinetPaperRequestDto("REF123", "Updated Subject", "Updated summary", 1, CabinetPaperStatusEnum.SUBMITTED);
 
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -32,6 +33,7 @@ import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -50,6 +52,8 @@ class CabinetPaperServiceTest {
     private CurrentUserProvider currentUserProvider;
     @Mock
     private CabinetPaperMapper cabinetPaperMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private CabinetPaperService cabinetPaperService;
@@ -79,7 +83,7 @@ class CabinetPaperServiceTest {
         paper.setSubmittedByUser(mockUser);
 
         // Updated DTO with 11 arguments
-        paperDto = new CabinetPaperDto(1, "REF123", "Title", "Summary", null, CabinetPaperStatusEnum.DRAFT, null, 1L, Collections.emptyList(), "2025-10-20", "2025-10-20");
+        paperDto = new CabinetPaperDto(1, "REF123", "Title", "Summary", null, CabinetPaperStatusEnum.DRAFT, null, 1L, Collections.emptyList(), "2025-10-20", "2025-10-20", null, null);
 
         createDto = new CreateCabinetPaperRequestDto("REF456", "New Subject", "Summary text", 1, CabinetPaperStatusEnum.DRAFT);
         updateDto = new UpdateCabinetPaperRequestDto("REF123", "Updated Subject", "Updated summary", 1, CabinetPaperStatusEnum.SUBMITTED);
@@ -125,16 +129,16 @@ class CabinetPaperServiceTest {
         when(cabinetPaperRepository.existsByReferenceId(anyString())).thenReturn(false);
         when(cabinetPaperMapper.toEntity(createDto)).thenReturn(paper);
         when(categoryRepository.findById(anyInt())).thenReturn(Optional.of(category));
-        when(currentUserProvider.getCurrentUserOrThrow()).thenReturn(mockUser);
+        when(currentUserProvider.getCurrentUserReference()).thenReturn(mockUser);
         when(cabinetPaperRepository.save(any(CabinetPaper.class))).thenReturn(paper);
-        when(storageService.upload(anyString(), any(MultipartFile.class))).thenReturn("minio/path/file.pdf");
-        when(attachmentRepository.save(any(Attachment.class))).thenReturn(new Attachment());
+        when(storageService.uploadAll(anyList())).thenReturn(List.of("minio/path/file.pdf"));
+        when(attachmentRepository.saveAll(anyList())).thenReturn(List.of(new Attachment()));
 
         CabinetPaper result = cabinetPaperService.createCabinetPaper(createDto, files);
 
         assertNotNull(result);
         verify(cabinetPaperRepository).save(paper);
-        verify(attachmentRepository).save(any(Attachment.class));
+        verify(attachmentRepository).saveAll(anyList());
     }
 
     @Test
@@ -151,11 +155,11 @@ class CabinetPaperServiceTest {
         when(cabinetPaperRepository.existsByReferenceId(anyString())).thenReturn(false);
         when(cabinetPaperMapper.toEntity(createDto)).thenReturn(paper);
         when(categoryRepository.findById(anyInt())).thenReturn(Optional.of(category));
-        when(currentUserProvider.getCurrentUserOrThrow()).thenReturn(mockUser);
+        when(currentUserProvider.getCurrentUserReference()).thenReturn(mockUser);
         when(cabinetPaperRepository.save(any(CabinetPaper.class))).thenReturn(paper);
 
         assertThrows(ResponseStatusException.class, () -> cabinetPaperService.createCabinetPaper(createDto, files));
-        verify(storageService, never()).upload(anyString(), any(MultipartFile.class));
+        verify(storageService, never()).uploadAll(anyList());
     }
 
     @Test
@@ -176,11 +180,11 @@ class CabinetPaperServiceTest {
         List<Attachment> attachments = Collections.singletonList(mockAttachment);
         when(cabinetPaperRepository.findById(1)).thenReturn(Optional.of(paper));
         when(attachmentRepository.findByParentTypeAndParentId(ParentTypeEnum.CABINET_PAPER, 1)).thenReturn(attachments);
-        doNothing().when(storageService).delete(anyString());
+        doNothing().when(storageService).release(anyList());
 
         cabinetPaperService.deleteCabinetPaper(1);
 
-        verify(storageService).delete("minio/path/to/file.pdf");
+        verify(storageService).release(List.of("minio/path/to/file.pdf"));
         verify(attachmentRepository).deleteAll(attachments);
         verify(cabinetPaperRepository).delete(paper);
     }
@@ -29,6 +29,8 @@ class CabinetPaperCategoryServiceTest {
     private CabinetPaperRepository cabinetPaperRepository;
     @Mock
     private CabinetPaperCategoryMapper cabinetPaperCategoryMapper;
+    @Mock
+    private CabinetPaperCategoryNameCache categoryNameCache;
 
     @InjectMocks
     private CabinetPaperCategoryService service;
@@ -146,6 +148,7 @@ class CabinetPaperCategoryServiceTest {
 
         // Then
         verify(repository, times(1)).deleteById(1);
+        verify(categoryNameCache).evict();
     }
 
     @Test
@@ -0,0 +1,212 @@
+package lk.gov.mohe.adminsystem.dashboard;
+
+import lk.gov.mohe.adminsystem.cabinetpaper.category.CabinetPaperCategoryNameCache;
+import lk.gov.mohe.adminsystem.division.DivisionNameCache;
+import lk.gov.mohe.adminsystem.letter.LetterRepository;
+import lk.gov.mohe.adminsystem.letter.LetterStatsKey;
+import lk.gov.mohe.adminsystem.letter.LetterStatsService;
+import lk.gov.mohe.adminsystem.letter.PriorityEnum;
+import lk.gov.mohe.adminsystem.letter.StatusEnum;
+import lk.gov.mohe.adminsystem.role.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private LetterRepository letterRepository;
+    @Mock
+    private LetterStatsService letterStatsService;
+    @Mock
+    private DivisionNameCache divisionNameCache;
+    @Mock
+    private CabinetPaperCategoryNameCache categoryNameCache;
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private DashboardStatsCache statsCache = new DashboardStatsCache();
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(statsCache, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(dashboardService, "sectionTimeout", Duration.ofSeconds(2));
+        dashboardService.setMaxConcurrentSections(4);
+        lenient().when(divisionNameCache.get()).thenReturn(Map.of(1, "Finance", 2, "Planning"));
+    }
+
+    @Test
+    void getDashboardStats_ShouldAnswerDivisionScopeFromItsMaterializedCounts() {
+        // Given
+        when(letterStatsService.getCounts(2)).thenReturn(Map.of(
+                new LetterStatsKey(StatusEnum.ASSIGNED_TO_DIVISION, PriorityEnum.HIGH, 2), 3L,
+                new LetterStatsKey(StatusEnum.CLOSED, PriorityEnum.NORMAL, 2), 4L));
+
+        // When
+        DashboardStatsDto stats = dashboardService.getDashboardStats(7, 2, Set.of("letter:division:read"));
+
+        // Then
+        DashboardStatsDto.LetterStats letterStats = stats.letterStats();
+        assertEquals(7L, letterStats.totalLetters());
+        assertEquals(0L, letterStats.unassignedLetters());
+        assertEquals(3L, letterStats.lettersByStatus().get("ASSIGNED_TO_DIVISION"));
+        assertEquals(0L, letterStats.lettersByStatus().get("NEW"));
+        assertEquals(4L, letterStats.lettersByPriority().get("NORMAL"));
+        assertEquals(Map.of("Finance", 0L, "Planning", 7L, "Unassigned", 0L), letterStats.lettersByDivision());
+        verifyNoInteractions(letterRepository);
+    }
+
+    @Test
+    void getDashboardStats_ShouldReadOwnScopeFromOneGroupedQuery() {
+        // Given
+        when(letterRepository.countGroupedByAssignedUserId(7)).thenReturn(List.of(
+                new Object[]{"PENDING_ACCEPTANCE", null, 2L},
+                new Object[]{"ASSIGNED_TO_OFFICER", null, 3L},
+                new Object[]{null, "URGENT", 5L},
+                new Object[]{null, null, 5L}));
+
+        // When
+        DashboardStatsDto stats = dashboardService.getDashboardStats(7, 2, Set.of("letter:own:manage"));
+
+        // Then
+        DashboardStatsDto.LetterStats letterStats = stats.letterStats();
+        assertEquals(5L, letterStats.totalLetters());
+        assertEquals(2L, letterStats.lettersByStatus().get("PENDING_ACCEPTANCE"));
+        assertEquals(3L, letterStats.lettersByStatus().get("ASSIGNED_TO_OFFICER"));
+        assertEquals(5L, letterStats.lettersByPriority().get("URGENT"));
+        assertEquals(0L, letterStats.lettersByPriority().get("NORMAL"));
+        assertEquals(5L, letterStats.lettersByDivision().get("Planning"));
+        verify(letterRepository, times(1)).countGroupedByAssignedUserId(7);
+        verifyNoInteractions(letterStatsService);
+    }
+
+    @Test
+    void getDashboardStats_ShouldServeRepeatedRequestsFromCache() {
+        // Given
+        when(letterStatsService.getCounts(2)).thenReturn(Map.of(
+                new LetterStatsKey(StatusEnum.NEW, PriorityEnum.NORMAL, 2), 1L));
+
+        // When
+        DashboardStatsDto first = dashboardService.getDashboardStats(7, 2, Set.of("letter:division:read"));
+        DashboardStatsDto second = dashboardService.getDashboardStats(8, 2, Set.of("letter:division:read"));
+
+        // Then
+        assertSame(first.letterStats(), second.letterStats());
+        verify(letterStatsService, times(1)).getCounts(2);
+    }
+
+    @Test
+    void getDashboardStats_ShouldLeaveOutSectionThatFails() {
+        // Given
+        when(letterStatsService.getCounts(2)).thenThrow(new IllegalStateException("connection refused"));
+        when(roleRepository.count()).thenReturn(4L);
+
+        // When
+        DashboardStatsDto stats = dashboardService.getDashboardStats(7, 2, Set.of("letter:division:read", "role:read"));
+
+        // Then
+        assertNull(stats.letterStats());
+        assertEquals(4L, stats.roleStats().totalRoles());
+    }
+
+    @Test
+    void getDashboardStats_ShouldLeaveOutSectionThatTimesOut() {
+        // Given
+        ReflectionTestUtils.setField(dashboardService, "sectionTimeout", Duration.ofMillis(100));
+        when(letterStatsService.getCounts(2)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return Map.of();
+        });
+        when(roleRepository.count()).thenReturn(4L);
+
+        // When
+        long start = System.nanoTime();
+        DashboardStatsDto stats = dashboardService.getDashboardStats(7, 2, Set.of("letter:division:read", "role:read"));
+
+        // Then
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+        assertNull(stats.letterStats());
+        assertEquals(4L, stats.roleStats().totalRoles());
+    }
+
+    @Test
+    void getDashboardStats_ShouldNotInterruptSectionThatTimesOut() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(dashboardService, "sectionTimeout", Duration.ofMillis(100));
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(letterStatsService.getCounts(2)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            finished.countDown();
+            return Map.of();
+        });
+
+        // When
+        DashboardStatsDto stats = dashboardService.getDashboardStats(7, 2, Set.of("letter:division:read"));
+
+        // Then
+        assertNull(stats.letterStats());
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertFalse(interrupted.get());
+    }
+
+    @Test
+    void getDashboardStats_ShouldBoundSectionsHoldingAConnection_AcrossRequests() throws Exception {
+        // Given
+        dashboardService.setMaxConcurrentSections(2);
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger maxOpen = new AtomicInteger();
+        // Each section's transaction stands for a pooled connection
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            return null;
+        });
+        doAnswer(invocation -> open.decrementAndGet()).when(transactionManager).commit(any());
+        when(letterStatsService.getCounts()).thenReturn(Map.of());
+        when(roleRepository.count()).thenReturn(4L);
+        Set<String> authorities = Set.of("letter:all:read", "division:read", "role:read");
+
+        // When
+        // Two cold dashboards at once, three sections each
+        DashboardStatsDto[] stats = new DashboardStatsDto[2];
+        Thread first = Thread.ofVirtual().start(() -> stats[0] = dashboardService.getDashboardStats(7, 2, authorities));
+        Thread second = Thread.ofVirtual().start(() -> stats[1] = dashboardService.getDashboardStats(8, 2, authorities));
+        first.join();
+        second.join();
+
+        // Then
+        assertEquals(2, maxOpen.get());
+        assertEquals(4L, stats[0].roleStats().totalRoles());
+        assertEquals(4L, stats[1].roleStats().totalRoles());
+    }
+}
@@ -0,0 +1,120 @@
+package lk.gov.mohe.adminsystem.dashboard;
+
+import lk.gov.mohe.adminsystem.letter.LetterChangedEvent;
+import lk.gov.mohe.adminsystem.letter.LetterSnapshot;
+import lk.gov.mohe.adminsystem.letter.LetterStatsKey;
+import lk.gov.mohe.adminsystem.letter.PriorityEnum;
+import lk.gov.mohe.adminsystem.letter.StatusEnum;
+import lk.gov.mohe.adminsystem.role.RoleChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardStatsCacheTest {
+
+    private DashboardStatsCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DashboardStatsCache();
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void onLetterChanged_ShouldEvictOnlyTheScopesTheLetterMovedBetween() {
+        // Given
+        String[] keys = {
+                DashboardStatsCache.ALL_LETTERS,
+                DashboardStatsCache.UNASSIGNED_LETTERS,
+                DashboardStatsCache.divisionLetters(3),
+                DashboardStatsCache.divisionLetters(4),
+                DashboardStatsCache.ownLetters(7),
+                DashboardStatsCache.ownLetters(8),
+                DashboardStatsCache.CABINET_PAPERS};
+        for (String key : keys) {
+            cache.get(key, loads::incrementAndGet);
+        }
+        // Returned by its officer (user 7) to division 3
+        LetterSnapshot before = new LetterSnapshot(
+                new LetterStatsKey(StatusEnum.ASSIGNED_TO_OFFICER, PriorityEnum.NORMAL, 3), 7);
+        LetterSnapshot after = new LetterSnapshot(
+                new LetterStatsKey(StatusEnum.RETURNED_FROM_OFFICER, PriorityEnum.NORMAL, 3), null);
+
+        // When
+        cache.onLetterChanged(new LetterChangedEvent(1, before, after));
+        loads.set(0);
+        for (String key : keys) {
+            cache.get(key, loads::incrementAndGet);
+        }
+
+        // Then
+        // All letters, division 3 and user 7 are reloaded
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotKeepSectionLoaded_WhileAChangeWasCommitted() {
+        // When
+        cache.get(DashboardStatsCache.ROLES, () -> {
+            cache.onRoleChanged(new RoleChangedEvent(1));
+            return loads.incrementAndGet();
+        });
+        cache.get(DashboardStatsCache.ROLES, loads::incrementAndGet);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldReload_OnceEntryHasExpired() {
+        // Given
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ZERO);
+
+        // When
+        cache.get(DashboardStatsCache.USERS, loads::incrementAndGet);
+        cache.get(DashboardStatsCache.USERS, loads::incrementAndGet);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotKeepStaleSection_WhenEvictRunsJustBeforeItIsStored() {
+        // Given
+        // A change commits on another thread after the section was loaded, right before it is
+        // stored, which is the narrowest window between loading and caching
+        AtomicInteger source = new AtomicInteger();
+        AtomicBoolean changed = new AtomicBoolean();
+        ReflectionTestUtils.setField(cache, "entries", new ConcurrentHashMap<String, Object>() {
+            @Override
+            public Object put(String key, Object value) {
+                if (changed.compareAndSet(false, true)) {
+                    CompletableFuture.runAsync(() -> {
+                        source.incrementAndGet();
+                        cache.evict(Set.of(key));
+                    }).join();
+                }
+                return super.put(key, value);
+            }
+        });
+
+        // When
+        int loaded = cache.get(DashboardStatsCache.USERS, source::get);
+        int next = cache.get(DashboardStatsCache.USERS, source::get);
+
+        // Then
+        assertEquals(0, loaded);
+        assertEquals(1, next);
+    }
+}
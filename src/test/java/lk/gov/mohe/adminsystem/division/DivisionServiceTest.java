@@ -1,5 +1,7 @@
 package lk.gov.mohe.adminsystem.division;
 
+import lk.gov.mohe.adminsystem.util.CountMode;
+import lk.gov.mohe.adminsystem.util.RowCountEstimator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,10 +11,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +34,12 @@ class DivisionServiceTest {
     @Mock
     private DivisionMapper divisionMapper;
 
+    @Mock
+    private RowCountEstimator rowCountEstimator;
+
+    @Mock
+    private DivisionNameCache divisionNameCache;
+
     @InjectMocks
     private DivisionService divisionService;
 
@@ -56,7 +68,8 @@ class DivisionServiceTest {
         when(divisionMapper.toDto(any(Division.class))).thenReturn(divisionDto);
 
         // When: getDivisions is called
-        Page<DivisionDto> result = divisionService.getDivisions("Test", 0, 10);
+        Page<DivisionDto> result =
+                assertInstanceOf(Page.class, divisionService.getDivisions("Test", 0, 10, CountMode.EXACT));
 
         // Then: The repository and mapper are called, and a page of DTOs is returned
         assertNotNull(result);
@@ -66,6 +79,34 @@ class DivisionServiceTest {
         verify(divisionMapper, times(1)).toDto(division);
     }
 
+    @Test
+    void getDivisions_ShouldSkipCountQuery_WhenCountModeIsNone() {
+        when(divisionRepository.findBy(any(Specification.class), any()))
+                .thenReturn(new SliceImpl<>(List.of(division), PageRequest.of(0, 1), true));
+        when(divisionMapper.toDto(any(Division.class))).thenReturn(divisionDto);
+
+        Slice<DivisionDto> result = divisionService.getDivisions("Test", 0, 1, CountMode.NONE);
+
+        assertFalse(result instanceof Page);
+        assertTrue(result.hasNext());
+        verify(divisionRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        verify(divisionRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void getDivisions_ShouldUsePlannerEstimate_WhenCountModeIsEstimateAndUnfiltered() {
+        when(divisionRepository.findBy(any(Specification.class), any()))
+                .thenReturn(new SliceImpl<>(List.of(division), PageRequest.of(0, 1), true));
+        when(divisionMapper.toDto(any(Division.class))).thenReturn(divisionDto);
+        when(rowCountEstimator.estimate(Division.class)).thenReturn(500L);
+
+        Page<DivisionDto> result =
+                assertInstanceOf(Page.class, divisionService.getDivisions("", 0, 1, CountMode.ESTIMATE));
+
+        assertEquals(500, result.getTotalElements());
+        verify(divisionRepository, never()).count(any(Specification.class));
+    }
+
     @Test
     void createDivision_ShouldSaveDivision_WhenNameIsUnique() {
         // Given: A division with the same name does not exist
@@ -79,6 +120,7 @@ class DivisionServiceTest {
         verify(divisionRepository, times(1)).existsByNameIgnoreCase(createDto.name());
         verify(divisionMapper, times(1)).dtoToDivision(createDto);
         verify(divisionRepository, times(1)).save(division);
+        verify(divisionNameCache).evict();
     }
 
     @Test
@@ -157,6 +199,7 @@ class DivisionServiceTest {
         // Then: The division is deleted
         verify(divisionRepository, times(1)).findById(1);
         verify(divisionRepository, times(1)).delete(division);
+        verify(divisionNameCache).evict();
     }
 
     @Test
@@ -0,0 +1,106 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LetterEventRelayTest {
+
+    @Mock
+    private LetterEventOutboxRepository outboxRepository;
+    @Mock
+    private OutboxOffsetRepository offsetRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private LetterEventRelay relay;
+
+    private OutboxOffset offset;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+
+        offset = new OutboxOffset();
+        offset.setName(LetterEventRelay.OFFSET_NAME);
+        offset.setTxId(500L);
+        offset.setLastId(10L);
+        when(offsetRepository.findByNameForUpdate(LetterEventRelay.OFFSET_NAME)).thenReturn(Optional.of(offset));
+    }
+
+    @Test
+    void relayBatch_ShouldPublishEntriesAndAdvanceOffset() {
+        // Given
+        when(outboxRepository.findSettledAfter(500L, 10L, 2))
+                .thenReturn(List.of(entry(12L, 501L, EventTypeEnum.ADD_NOTE), entry(11L, 502L, EventTypeEnum.REPLY)));
+
+        // When
+        int relayed = relay.relayBatch();
+
+        // Then
+        assertEquals(2, relayed);
+        ArgumentCaptor<LetterEventsRelayedEvent> captor = ArgumentCaptor.forClass(LetterEventsRelayedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(List.of(12L, 11L), captor.getValue().events().stream().map(RelayedLetterEvent::outboxId).toList());
+        // Entries are ordered by transaction, so the offset ends at the last one handed out
+        assertEquals(502L, offset.getTxId());
+        assertEquals(11L, offset.getLastId());
+        assertNotNull(offset.getUpdatedAt());
+    }
+
+    @Test
+    void relayBatch_ShouldKeepOffset_WhenNothingIsSettled() {
+        // Given
+        when(outboxRepository.findSettledAfter(500L, 10L, 2)).thenReturn(List.of());
+
+        // When
+        int relayed = relay.relayBatch();
+
+        // Then
+        assertEquals(0, relayed);
+        verifyNoInteractions(eventPublisher);
+        assertEquals(500L, offset.getTxId());
+        assertEquals(10L, offset.getLastId());
+    }
+
+    @Test
+    void relayBatch_ShouldNotAdvanceOffset_WhenListenerFails() {
+        // Given
+        when(outboxRepository.findSettledAfter(500L, 10L, 2))
+                .thenReturn(List.of(entry(11L, 501L, EventTypeEnum.CHANGE_STATUS)));
+        doThrow(new IllegalStateException("index unavailable")).when(eventPublisher).publishEvent(any(Object.class));
+
+        // When
+        assertThrows(IllegalStateException.class, () -> relay.relayBatch());
+
+        // Then
+        // The transaction rolls back and the batch is handed out again on the next run
+        assertEquals(500L, offset.getTxId());
+        assertEquals(10L, offset.getLastId());
+    }
+
+    private static LetterEventOutboxEntry entry(long id, long txId, EventTypeEnum eventType) {
+        LetterEventOutboxEntry entry = new LetterEventOutboxEntry();
+        entry.setId(id);
+        entry.setTxId(txId);
+        entry.setLetterEventId((int) id * 10);
+        entry.setLetterId(3);
+        entry.setEventType(eventType);
+        return entry;
+    }
+}
@@ -0,0 +1,225 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import jakarta.persistence.EntityManagerFactory;
+import lk.gov.mohe.adminsystem.TestcontainersConfiguration;
+import lk.gov.mohe.adminsystem.division.Division;
+import lk.gov.mohe.adminsystem.role.Role;
+import lk.gov.mohe.adminsystem.user.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.config.on-not-found=ignore",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class LetterRepositoryTest {
+
+    private static final int LETTER_COUNT = 12;
+
+    private final Specification<Letter> testLetters =
+            (root, query, cb) -> cb.like(root.get("reference"), "STATS-%");
+
+    @Autowired
+    private LetterRepository letterRepository;
+    @Autowired
+    private LetterEventRepository letterEventRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Every letter gets its own division, role and user so lazy loading would show up as N+1
+        for (int i = 0; i < LETTER_COUNT; i++) {
+            Division division = new Division();
+            division.setName("Stats Division " + i);
+            entityManager.persist(division);
+
+            Role role = new Role();
+            role.setName("Stats Role " + i);
+            entityManager.persist(role);
+
+            User user = new User();
+            user.setUsername("stats-user-" + i);
+            user.setPassword("password");
+            user.setRole(role);
+            user.setDivision(division);
+            entityManager.persist(user);
+
+            Letter letter = new Letter();
+            letter.setReference("STATS-" + i);
+            letter.setSubject("Subject " + i);
+            letter.setReceivedDate(LocalDate.now());
+            letter.setModeOfArrival(ModeOfArrivalEnum.HAND_DELIVERED);
+            letter.setPriority(PriorityEnum.NORMAL);
+            letter.setStatus(StatusEnum.ASSIGNED_TO_OFFICER);
+            letter.setAssignedDivision(division);
+            letter.setAssignedUser(user);
+            entityManager.persist(letter);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAll_ShouldUseConstantNumberOfStatementsPerPage_RegardlessOfPageSize() {
+        long smallPage = countStatementsForPage(5);
+        long fullPage = countStatementsForPage(LETTER_COUNT);
+
+        // One select for the rows and one count for the total
+        assertEquals(2, smallPage);
+        assertEquals(2, fullPage);
+    }
+
+    @Test
+    void findBy_ShouldScrollThroughAllLettersByKeyset_WithoutGapsOrDuplicates() {
+        List<Integer> seen = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Letter> window;
+        do {
+            ScrollPosition current = position;
+            window = letterRepository.findBy(testLetters, q -> q.sortBy(LetterCursor.SORT)
+                    .limit(5)
+                    .scroll(current));
+            window.forEach(letter -> seen.add(letter.getId()));
+            if (window.hasNext()) {
+                position = LetterCursor.LETTERS.decode(LetterCursor.LETTERS.next(window));
+            }
+        } while (window.hasNext());
+
+        assertEquals(LETTER_COUNT, seen.size());
+        assertEquals(LETTER_COUNT, Set.copyOf(seen).size());
+    }
+
+    @Test
+    void findAll_ShouldMatchPartialReferenceThroughFullTextIndex() {
+        Page<Letter> page = letterRepository.findAll(
+                testLetters.and(LetterSpecs.matchesQuery("STATS-1")), PageRequest.of(0, LETTER_COUNT));
+
+        // STATS-1, STATS-10 and STATS-11
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    void findAll_ShouldRankFullTextMatchesByRelevance() {
+        persistLetter("RANK-1", "annual budget");
+        persistLetter("RANK-2", "budget budget budget review");
+        persistLetter("RANK-3", "budget and budget");
+        entityManager.flush();
+        entityManager.clear();
+        // The table is nearly empty; scores are only computed when the PGroonga index is used
+        entityManager.getEntityManager().createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+
+        Specification<Letter> rankLetters = (root, query, cb) -> cb.like(root.get("reference"), "RANK-%");
+        Page<Letter> page = letterRepository.findAll(
+                rankLetters.and(LetterSpecs.matchesQuery("budget")),
+                PageRequest.of(0, 10, Sort.by(Sort.Order.desc("searchScore")).and(LetterCursor.SORT)));
+
+        assertEquals(List.of("RANK-2", "RANK-3", "RANK-1"), page.map(Letter::getReference).getContent());
+    }
+
+    @Test
+    void findAll_ShouldSearchQuerySyntaxAsPlainText() {
+        persistLetter("SYNTAX-1", "budget (draft) OR final");
+        entityManager.flush();
+
+        Specification<Letter> syntaxLetters = (root, query, cb) -> cb.like(root.get("reference"), "SYNTAX-%");
+        // Unbalanced quotes and parentheses, a bare OR and a leading minus are not query syntax
+        for (String text : new String[] {"\"budget", "(draft", "OR", "-budget"}) {
+            assertDoesNotThrow(() -> letterRepository.findAll(
+                    syntaxLetters.and(LetterSpecs.matchesQuery(text)), PageRequest.of(0, 10)), text);
+        }
+        assertEquals(1, letterRepository.findAll(
+                syntaxLetters.and(LetterSpecs.matchesQuery("(draft) OR")), PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(0, letterRepository.findAll(
+                syntaxLetters.and(LetterSpecs.matchesQuery("budget OR missing")), PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void findByLetterId_ShouldScrollThroughEventTimelineByKeyset_WithoutGapsOrDuplicates() {
+        Letter letter = letterRepository.findAll(testLetters).get(0);
+        for (int i = 0; i < 7; i++) {
+            LetterEvent event = new LetterEvent();
+            event.setLetter(letter);
+            event.setUser(letter.getAssignedUser());
+            event.setEventType(EventTypeEnum.ADD_NOTE);
+            entityManager.persist(event);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Integer> seen = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<LetterEvent> window;
+        do {
+            window = letterEventRepository.findByLetterIdOrderByCreatedAtDescIdDesc(
+                    letter.getId(), position, Limit.of(3));
+            window.forEach(event -> seen.add(event.getId()));
+            if (window.hasNext()) {
+                position = LetterCursor.EVENTS.decode(LetterCursor.EVENTS.next(window));
+            }
+        } while (window.hasNext());
+
+        assertEquals(7, seen.size());
+        assertEquals(7, Set.copyOf(seen).size());
+    }
+
+    private void persistLetter(String reference, String subject) {
+        Letter letter = new Letter();
+        letter.setReference(reference);
+        letter.setSubject(subject);
+        letter.setReceivedDate(LocalDate.now());
+        letter.setModeOfArrival(ModeOfArrivalEnum.HAND_DELIVERED);
+        letter.setPriority(PriorityEnum.NORMAL);
+        letter.setStatus(StatusEnum.NEW);
+        entityManager.persist(letter);
+    }
+
+    private long countStatementsForPage(int pageSize) {
+        entityManager.clear();
+        statistics.clear();
+
+        Page<Letter> page = letterRepository.findAll(testLetters, PageRequest.of(0, pageSize));
+        page.forEach(letter -> {
+            letter.getAssignedDivision().getName();
+            letter.getAssignedUser().getFullName();
+            letter.getAssignedUser().getRole().getName();
+            letter.getAssignedUser().getDivision().getName();
+        });
+
+        assertEquals(pageSize, page.getNumberOfElements());
+        return statistics.getPrepareStatementCount();
+    }
+}
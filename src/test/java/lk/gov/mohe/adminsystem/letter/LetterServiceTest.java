@@ -1,30 +1,49 @@
 package lk.gov.mohe.adminsystem.letter;
 
+import lk.gov.mohe.adminsystem.attachment.Attachment;
+import lk.gov.mohe.adminsystem.attachment.AttachmentRepository;
+import lk.gov.mohe.adminsystem.attachment.ParentTypeEnum;
 import lk.gov.mohe.adminsystem.division.Division;
 import lk.gov.mohe.adminsystem.division.DivisionRepository;
 import lk.gov.mohe.adminsystem.security.CurrentUserProvider;
+import lk.gov.mohe.adminsystem.storage.MinioStorageService;
 import lk.gov.mohe.adminsystem.user.User;
 import lk.gov.mohe.adminsystem.user.UserRepository;
+import lk.gov.mohe.adminsystem.util.CountMode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +55,8 @@ class LetterServiceTest {
     @Mock
     private LetterEventRepository letterEventRepository;
     @Mock
+    private AttachmentRepository attachmentRepository;
+    @Mock
     private DivisionRepository divisionRepository;
     @Mock
     private UserRepository userRepository;
@@ -43,6 +64,14 @@ class LetterServiceTest {
     private CurrentUserProvider currentUserProvider;
     @Mock
     private LetterMapper letterMapper;
+    @Mock
+    private LetterStatsService letterStatsService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private LetterEventOutboxRepository letterEventOutboxRepository;
+    @Mock
+    private MinioStorageService storageService;
     //</editor-fold>
 
     @InjectMocks
@@ -58,6 +87,7 @@ class LetterServiceTest {
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(letterService, "acceptedMimeTypes", Set.of("application/pdf"));
+        ReflectionTestUtils.setField(letterService, "embeddedEventCount", 50);
 
         userDivision = new Division();
         userDivision.setId(10);
@@ -91,8 +121,9 @@ class LetterServiceTest {
                 PriorityEnum.NORMAL
         );
 
-        when(currentUserProvider.getCurrentUserOrThrow()).thenReturn(currentUser);
-        when(letterEventRepository.save(any(LetterEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(currentUserProvider.getCurrentUserOrThrow()).thenReturn(currentUser);
+        lenient().when(currentUserProvider.getCurrentUserReference()).thenReturn(currentUser);
+        lenient().when(letterEventRepository.save(any(LetterEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
     }
     //</editor-fold>
 
@@ -108,6 +139,44 @@ class LetterServiceTest {
         verify(letterEventRepository, times(1)).save(any(LetterEvent.class));
     }
 
+    @Test
+    void createLetter_ShouldRecordStatsChange_AfterAttachmentsAreStored() {
+        // Given
+        when(letterRepository.existsLetterByReference(createDto.reference())).thenReturn(false);
+        when(letterMapper.toEntity(createDto)).thenReturn(new Letter());
+        when(letterRepository.save(any(Letter.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(storageService.uploadAll(anyList())).thenReturn(List.of("content/ab/abc123"));
+        MultipartFile[] attachments = {
+                new MockMultipartFile("attachments", "letter.pdf", "application/pdf", "%PDF-1.7".getBytes())
+        };
+
+        // When
+        letterService.createLetter(createDto, attachments);
+
+        // Then
+        // The stats row is hot, so its lock is only taken once the slow work is done
+        InOrder inOrder = inOrder(storageService, attachmentRepository, letterEventRepository, letterStatsService);
+        inOrder.verify(storageService).uploadAll(anyList());
+        inOrder.verify(attachmentRepository).saveAll(anyList());
+        inOrder.verify(letterEventRepository).save(any(LetterEvent.class));
+        inOrder.verify(letterStatsService).recordChange(isNull(), any(LetterStatsKey.class));
+    }
+
+    @Test
+    void addNote_ShouldWriteEventToOutbox() {
+        // Given
+        when(letterRepository.findById(3)).thenReturn(Optional.of(letterAssignedToUser));
+
+        // When
+        letterService.addNote(3, "Followed up by phone", null, 100, 10, List.of("letter:own:manage"));
+
+        // Then
+        ArgumentCaptor<LetterEventOutboxEntry> captor = ArgumentCaptor.forClass(LetterEventOutboxEntry.class);
+        verify(letterEventOutboxRepository).save(captor.capture());
+        assertEquals(3, captor.getValue().getLetterId());
+        assertEquals(EventTypeEnum.ADD_NOTE, captor.getValue().getEventType());
+    }
+
     @Test
     void assignDivision_ShouldSucceed_WhenLetterIsUnassigned() {
         when(letterRepository.findById(1)).thenReturn(Optional.of(unassignedLetter));
@@ -120,6 +189,26 @@ class LetterServiceTest {
         verify(letterRepository, times(1)).save(unassignedLetter);
     }
 
+    @Test
+    void assignDivision_ShouldMoveLetterBetweenStatsCountsAndPublishChange() {
+        // Given
+        unassignedLetter.setStatus(StatusEnum.NEW);
+        unassignedLetter.setPriority(PriorityEnum.HIGH);
+        when(letterRepository.findById(1)).thenReturn(Optional.of(unassignedLetter));
+        when(divisionRepository.findById(10)).thenReturn(Optional.of(userDivision));
+
+        // When
+        letterService.assignDivision(1, 10);
+
+        // Then
+        LetterStatsKey before =
+                new LetterStatsKey(StatusEnum.NEW, PriorityEnum.HIGH, LetterStatsKey.UNASSIGNED_DIVISION_ID);
+        LetterStatsKey after = new LetterStatsKey(StatusEnum.ASSIGNED_TO_DIVISION, PriorityEnum.HIGH, 10);
+        verify(letterStatsService).recordChange(before, after);
+        verify(eventPublisher).publishEvent(new LetterChangedEvent(
+                1, new LetterSnapshot(before, null), new LetterSnapshot(after, null)));
+    }
+
     @Test
     void acceptLetter_ShouldSucceed_WhenStatusIsPendingAndUserIsCorrect() {
         letterAssignedToUser.setStatus(StatusEnum.PENDING_ACCEPTANCE);
@@ -131,4 +220,84 @@ class LetterServiceTest {
         assertTrue(letterAssignedToUser.getIsAcceptedByUser());
         verify(letterRepository, times(1)).save(letterAssignedToUser);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAccessibleLetters_ShouldLoadAttachmentCountsForWholePageInOneQuery() {
+        when(letterRepository.findAll(isNull(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(unassignedLetter, letterAssignedToUser)));
+        when(attachmentRepository.countByParentTypeAndParentIdIn(ParentTypeEnum.LETTER, List.of(1, 3)))
+                .thenReturn(List.<Object[]>of(new Object[]{3, 2L}));
+
+        letterService.getAccessibleLetters(
+                100, 10, Set.of("letter:all:read"), null, 0, 10, CountMode.EXACT);
+
+        verify(attachmentRepository, times(1)).countByParentTypeAndParentIdIn(any(), any());
+        verify(attachmentRepository, never()).countByParentIdAndParentType(any(), any());
+        verify(letterMapper).toLetterDtoMin(unassignedLetter, 0L);
+        verify(letterMapper).toLetterDtoMin(letterAssignedToUser, 2L);
+    }
+
+    @Test
+    void getAccessibleLetters_ShouldSortSearchResultsByRelevanceThenNewest() {
+        when(letterRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(Page.empty());
+        LetterSearchParams filters = new LetterSearchParams();
+        filters.setQuery("budget");
+
+        letterService.getAccessibleLetters(100, 10, Set.of("letter:all:read"), filters, 0, 10, CountMode.EXACT);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(letterRepository).findAll(any(Specification.class), pageable.capture());
+        assertEquals(Sort.by(Sort.Order.desc("searchScore")).and(LetterCursor.SORT), pageable.getValue().getSort());
+    }
+
+    @Test
+    void getLetterById_ShouldResolveEventReferencesWithOneQueryPerType() {
+        List<LetterEvent> events = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            LetterEvent event = new LetterEvent();
+            event.setEventDetails(Map.of("divisionId", 10, "userId", 100, "attachmentIds", List.of(i)));
+            events.add(event);
+        }
+        Attachment attachment = new Attachment();
+        attachment.setId(7);
+        when(letterRepository.findById(3)).thenReturn(Optional.of(letterAssignedToUser));
+        when(letterEventRepository.findByLetterIdOrderByCreatedAtDescIdDesc(3, ScrollPosition.keyset(), Limit.of(50)))
+                .thenReturn(Window.from(events, ScrollPosition::offset));
+        when(attachmentRepository.findAllById(any())).thenReturn(List.of(attachment));
+        when(divisionRepository.findAllById(Set.of(10))).thenReturn(List.of(userDivision));
+        when(userRepository.findAllByIdIn(Set.of(100))).thenReturn(List.of(currentUser));
+
+        letterService.getLetterById(3, 100, 10, Set.of("letter:all:read"));
+
+        verify(attachmentRepository, times(1)).findAllById(any());
+        verify(divisionRepository, times(1)).findAllById(any());
+        verify(userRepository, times(1)).findAllByIdIn(any());
+        verify(divisionRepository, never()).findById(any());
+        verify(userRepository, never()).findById(any());
+        assertEquals(userDivision, events.get(0).getEventDetails().get("division"));
+        assertEquals(currentUser, events.get(0).getEventDetails().get("user"));
+        assertEquals(List.of(attachment), events.get(7).getEventDetails().get("attachments"));
+        assertEquals(List.of(), events.get(8).getEventDetails().get("attachments"));
+    }
+
+    @Test
+    void getLetterEvents_ShouldRejectUsersWithoutAccessToTheLetter() {
+        when(letterRepository.findById(3)).thenReturn(Optional.of(letterAssignedToUser));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> letterService.getLetterEvents(3, 100, 99, Set.of("letter:division:read"), null, 20));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verifyNoInteractions(letterEventRepository);
+    }
+
+    @Test
+    void scrollAccessibleLetters_ShouldRejectMalformedCursor() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> letterService.scrollAccessibleLetters(
+                        100, 10, Set.of("letter:all:read"), null, "not-a-cursor", 10));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(letterRepository);
+    }
+}
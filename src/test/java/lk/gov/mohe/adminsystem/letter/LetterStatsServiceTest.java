@@ -0,0 +1,68 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LetterStatsServiceTest {
+
+    @Mock
+    private LetterRepository letterRepository;
+
+    @InjectMocks
+    private LetterStatsService letterStatsService;
+
+    @Test
+    void recordChange_ShouldUpdateRowsInKeyOrder() {
+        // Given
+        // A letter returned from its division moves to a row that sorts before the one it leaves
+        LetterStatsKey before = new LetterStatsKey(StatusEnum.RETURNED_FROM_DIVISION, PriorityEnum.NORMAL, 4);
+        LetterStatsKey after = new LetterStatsKey(StatusEnum.NEW, PriorityEnum.NORMAL, 0);
+
+        // When
+        letterStatsService.recordChange(before, after);
+
+        // Then
+        InOrder inOrder = inOrder(letterRepository);
+        inOrder.verify(letterRepository).addToLetterStats("NEW", "NORMAL", 0, 1L);
+        inOrder.verify(letterRepository).addToLetterStats("RETURNED_FROM_DIVISION", "NORMAL", 4, -1L);
+    }
+
+    @Test
+    void recordChange_ShouldDoNothing_WhenCountedDimensionsAreUnchanged() {
+        // Given
+        LetterStatsKey key = new LetterStatsKey(StatusEnum.PENDING_ACCEPTANCE, PriorityEnum.URGENT, 2);
+
+        // When
+        letterStatsService.recordChange(key, new LetterStatsKey(StatusEnum.PENDING_ACCEPTANCE, PriorityEnum.URGENT, 2));
+
+        // Then
+        verifyNoInteractions(letterRepository);
+    }
+
+    @Test
+    void getCounts_ShouldMapRowsToKeys() {
+        // Given
+        when(letterRepository.findLetterStats()).thenReturn(List.of(
+                new Object[]{"NEW", "HIGH", 0, 3L},
+                new Object[]{"CLOSED", "NORMAL", 5, 12L}));
+
+        // When
+        Map<LetterStatsKey, Long> counts = letterStatsService.getCounts();
+
+        // Then
+        assertEquals(Map.of(
+                new LetterStatsKey(StatusEnum.NEW, PriorityEnum.HIGH, 0), 3L,
+                new LetterStatsKey(StatusEnum.CLOSED, PriorityEnum.NORMAL, 5), 12L), counts);
+    }
+}
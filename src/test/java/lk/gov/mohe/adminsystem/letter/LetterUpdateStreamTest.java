@@ -0,0 +1,197 @@
+package lk.gov.mohe.adminsystem.letter;
+
+import lk.gov.mohe.adminsystem.division.Division;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class LetterUpdateStreamTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private LetterService letterService;
+
+    @Mock
+    private LetterRepository letterRepository;
+
+    private LetterUpdateStream letterUpdateStream;
+
+    @BeforeEach
+    void setUp() {
+        letterUpdateStream = new LetterUpdateStream(letterRepository);
+        ReflectionTestUtils.setField(letterUpdateStream, "heartbeatInterval", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(letterUpdateStream, "queueCapacity", 10);
+        mockMvc = MockMvcBuilders.standaloneSetup(new LetterController(letterService, letterUpdateStream)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        letterUpdateStream.closeAll();
+    }
+
+    @Test
+    void updateType_ShouldNameStatusTransitions() {
+        assertEquals("assigned", LetterUpdateStream.updateType(
+                event(1, StatusEnum.NEW, 0, null, StatusEnum.ASSIGNED_TO_DIVISION, 2, null)));
+        assertEquals("accepted", LetterUpdateStream.updateType(
+                event(1, StatusEnum.PENDING_ACCEPTANCE, 2, 7, StatusEnum.ASSIGNED_TO_OFFICER, 2, 7)));
+        assertEquals("returned", LetterUpdateStream.updateType(
+                event(1, StatusEnum.ASSIGNED_TO_OFFICER, 2, 7, StatusEnum.RETURNED_FROM_OFFICER, 2, null)));
+        assertEquals("closed", LetterUpdateStream.updateType(
+                event(1, StatusEnum.ASSIGNED_TO_OFFICER, 2, 7, StatusEnum.CLOSED, 2, 7)));
+        // New letters and priority changes are not streamed
+        assertNull(LetterUpdateStream.updateType(new LetterChangedEvent(1, null, snapshot(StatusEnum.NEW, 0, null))));
+        assertNull(LetterUpdateStream.updateType(
+                event(1, StatusEnum.ASSIGNED_TO_OFFICER, 2, 7, StatusEnum.ASSIGNED_TO_OFFICER, 2, 7)));
+    }
+
+    @Test
+    void streamLetterUpdates_ShouldOnlySendLettersInSubscriberScope() throws Exception {
+        // Given
+        MvcResult result = subscribe(7, 2, "letter:division:read");
+
+        // When
+        letterUpdateStream.onLetterChanged(
+                event(5, StatusEnum.NEW, 0, null, StatusEnum.ASSIGNED_TO_DIVISION, 3, null));
+        letterUpdateStream.onLetterChanged(
+                event(6, StatusEnum.NEW, 0, null, StatusEnum.ASSIGNED_TO_DIVISION, 2, null));
+
+        // Then
+        // Updates are sent in order, so once letter 6 arrives letter 5 would have been sent before it
+        String content = awaitContent(result, "\"letterId\":6");
+        assertTrue(content.contains("event:assigned"));
+        assertFalse(content.contains("\"letterId\":5"));
+    }
+
+    @Test
+    void streamLetterUpdates_ShouldSendReturn_ToOfficerTheLetterLeft() throws Exception {
+        // Given
+        MvcResult result = subscribe(7, 2, "letter:own:manage");
+
+        // When
+        letterUpdateStream.onLetterChanged(
+                event(5, StatusEnum.ASSIGNED_TO_OFFICER, 2, 7, StatusEnum.RETURNED_FROM_OFFICER, 2, null));
+
+        // Then
+        String content = awaitContent(result, "\"letterId\":5");
+        assertTrue(content.contains("event:returned"));
+    }
+
+    @Test
+    void onLetterEventsRelayed_ShouldSendNotesAndReplies_ToSubscribersInScope() throws Exception {
+        // Given
+        MvcResult result = subscribe(7, 2, "letter:division:read");
+        when(letterRepository.findAllById(List.of(5, 6))).thenReturn(List.of(letter(5, 3), letter(6, 2)));
+
+        // When
+        letterUpdateStream.onLetterEventsRelayed(new LetterEventsRelayedEvent(List.of(
+                relayed(1L, 5, EventTypeEnum.ADD_NOTE),
+                relayed(2L, 6, EventTypeEnum.CHANGE_STATUS),
+                relayed(3L, 6, EventTypeEnum.REPLY))));
+
+        // Then
+        // Status changes are already streamed on commit, so only the reply to letter 6 is sent
+        String content = awaitContent(result, "event:replied");
+        assertFalse(content.contains("\"letterId\":5"));
+        assertFalse(content.contains("event:assigned"));
+    }
+
+    @Test
+    void onLetterEventsRelayed_ShouldNotLoadLetters_WhenBatchHasNoNotesOrReplies() {
+        // When
+        letterUpdateStream.onLetterEventsRelayed(new LetterEventsRelayedEvent(List.of(
+                relayed(1L, 5, EventTypeEnum.CHANGE_STATUS))));
+
+        // Then
+        verifyNoInteractions(letterRepository);
+    }
+
+    @Test
+    void closeAll_ShouldRemoveSubscribers() throws Exception {
+        // Given
+        subscribe(7, 2, "letter:all:read");
+        assertEquals(1, letterUpdateStream.subscriberCount());
+
+        // When
+        letterUpdateStream.closeAll();
+
+        // Then
+        assertEquals(0, letterUpdateStream.subscriberCount());
+    }
+
+    private MvcResult subscribe(int userId, int divisionId, String authority) throws Exception {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .claim("userId", userId)
+                .claim("divisionId", divisionId)
+                .expiresAt(Instant.now().plusSeconds(600))
+                .build();
+        JwtAuthenticationToken authentication =
+                new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority(authority)));
+
+        return mockMvc.perform(get("/letters/stream").principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+
+    private static LetterChangedEvent event(
+            int letterId,
+            StatusEnum beforeStatus, int beforeDivisionId, Integer beforeUserId,
+            StatusEnum afterStatus, int afterDivisionId, Integer afterUserId) {
+        return new LetterChangedEvent(letterId,
+                snapshot(beforeStatus, beforeDivisionId, beforeUserId),
+                snapshot(afterStatus, afterDivisionId, afterUserId));
+    }
+
+    private static LetterSnapshot snapshot(StatusEnum status, int divisionId, Integer assignedUserId) {
+        return new LetterSnapshot(new LetterStatsKey(status, PriorityEnum.NORMAL, divisionId), assignedUserId);
+    }
+
+    private static Letter letter(int id, int divisionId) {
+        Division division = new Division();
+        division.setId(divisionId);
+        Letter letter = new Letter();
+        letter.setId(id);
+        letter.setStatus(StatusEnum.ASSIGNED_TO_DIVISION);
+        letter.setPriority(PriorityEnum.NORMAL);
+        letter.setAssignedDivision(division);
+        return letter;
+    }
+
+    private static RelayedLetterEvent relayed(long outboxId, int letterId, EventTypeEnum eventType) {
+        return new RelayedLetterEvent(outboxId, (int) outboxId * 10, letterId, eventType, Instant.now());
+    }
+}
@@ -0,0 +1,49 @@
+package lk.gov.mohe.adminsystem.role;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoleScopeCacheTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @InjectMocks
+    private RoleScopeCache roleScopeCache;
+
+    @Test
+    void get_ShouldLoadPermissionsOnce_AndJoinThemIntoScope() {
+        when(roleRepository.findPermissionNamesByRoleId(1)).thenReturn(List.of("letter:read", "user:read"));
+
+        RoleScope first = roleScopeCache.get(1);
+        RoleScope second = roleScopeCache.get(1);
+
+        assertEquals("letter:read user:read", first.scope());
+        assertEquals(Set.of("letter:read", "user:read"), first.permissions());
+        assertEquals(first, second);
+        verify(roleRepository, times(1)).findPermissionNamesByRoleId(1);
+    }
+
+    @Test
+    void evict_ShouldReloadPermissionsOnNextGet() {
+        when(roleRepository.findPermissionNamesByRoleId(1))
+                .thenReturn(List.of("letter:read"))
+                .thenReturn(List.of("letter:read", "letter:write"));
+
+        roleScopeCache.get(1);
+        roleScopeCache.evict(1);
+
+        assertEquals("letter:read letter:write", roleScopeCache.get(1).scope());
+        verify(roleRepository, times(2)).findPermissionNamesByRoleId(1);
+    }
+}
@@ -3,15 +3,18 @@ package lk.gov.mohe.adminsystem.role;
 import lk.gov.mohe.adminsystem.permission.Permission;
 import lk.gov.mohe.adminsystem.permission.PermissionRepository;
 import lk.gov.mohe.adminsystem.user.UserRepository;
+import lk.gov.mohe.adminsystem.util.CountMode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
@@ -36,6 +39,10 @@ class RoleServiceTest {
     private PermissionRepository permissionRepository;
     @Mock
     private RoleMapper roleMapper;
+    @Mock
+    private RoleScopeCache roleScopeCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private RoleService roleService;
@@ -73,7 +80,7 @@ class RoleServiceTest {
         when(userRepository.countUsersByRoleIds(List.of(1))).thenReturn(Collections.singletonList(userCountResult));
 
         // When
-        Page<RoleDto> result = roleService.getRoles("admin", 0, 10);
+        Slice<RoleDto> result = roleService.getRoles("admin", 0, 10, CountMode.EXACT);
 
         // Then
         assertNotNull(result);
@@ -113,6 +120,7 @@ class RoleServiceTest {
         roleService.updateRole(1, updateDto);
 
         verify(roleRepository, times(1)).save(role);
+        verify(roleScopeCache).evict(1);
         assertEquals("Updated Role", role.getName());
     }
 
@@ -124,6 +132,8 @@ class RoleServiceTest {
         roleService.deleteRole(1);
 
         verify(roleRepository, times(1)).delete(role);
+        verify(roleScopeCache).evict(1);
+        verify(eventPublisher).publishEvent(new RoleChangedEvent(1));
     }
 
     @Test
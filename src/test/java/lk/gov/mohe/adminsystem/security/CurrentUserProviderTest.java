@@ -0,0 +1,74 @@
+package lk.gov.mohe.adminsystem.security;
+
+import jakarta.persistence.EntityManager;
+import lk.gov.mohe.adminsystem.user.User;
+import lk.gov.mohe.adminsystem.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserProviderTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private CurrentUserProvider currentUserProvider;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(7);
+        user.setUsername("officer");
+
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("officer")
+                .claim("userId", 7L)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getCurrentUserReference_ShouldUseUserIdClaim_WithoutQueryingUsers() {
+        when(entityManager.getReference(User.class, 7)).thenReturn(user);
+
+        assertSame(user, currentUserProvider.getCurrentUserReference());
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void getCurrentUserOrThrow_ShouldLoadUserOncePerRequest() {
+        when(userRepository.findByUsername("officer")).thenReturn(user);
+
+        currentUserProvider.getCurrentUserOrThrow();
+        assertSame(user, currentUserProvider.getCurrentUserOrThrow());
+        assertSame(user, currentUserProvider.getCurrentUserReference());
+
+        verify(userRepository, times(1)).findByUsername("officer");
+        verifyNoInteractions(entityManager);
+    }
+}
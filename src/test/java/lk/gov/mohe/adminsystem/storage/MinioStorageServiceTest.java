@@ -1,7 +1,25 @@
 package lk.gov.mohe.adminsystem.storage;
 
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.errors.MinioException;
+import io.minio.messages.ErrorResponse;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,10 +30,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +50,15 @@ class MinioStorageServiceTest {
     @Mock
     private MinioClient minioClient;
 
+    @Mock
+    private ContentObjectRepository contentObjectRepository;
+
+    @Mock
+    private ObjectDeletionRepository objectDeletionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private MinioStorageService minioStorageService;
 
@@ -33,6 +68,8 @@ class MinioStorageServiceTest {
     void setUp() {
         // In a unit test, we must manually inject the value of the @Value field.
         ReflectionTestUtils.setField(minioStorageService, "bucket", "test-bucket");
+        ReflectionTestUtils.setField(minioStorageService, "orphanGracePeriod", Duration.ofHours(24));
+        minioStorageService.setUploadConcurrency(2);
 
         // Setup a common mock file for tests
         mockFile = new MockMultipartFile(
@@ -44,18 +81,13 @@ class MinioStorageServiceTest {
     }
 
     @Test
-    void upload_ShouldSucceedAndReturnObjectName_WhenBucketExists() throws Exception {
-        // Given
-        // Simulate that the bucket already exists
-        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
-        // We don't need to mock putObject as it returns void.
-
+    void upload_ShouldSucceedAndReturnObjectName_WithoutCheckingBucket() throws Exception {
         // When
         String objectName = minioStorageService.upload("letters", mockFile);
 
         // Then
-        // 1. Verify that we checked for the bucket's existence but did NOT try to create it.
-        verify(minioClient, times(1)).bucketExists(any(BucketExistsArgs.class));
+        // 1. The bucket is verified at startup, so uploads go straight to putObject.
+        verify(minioClient, never()).bucketExists(any(BucketExistsArgs.class));
         verify(minioClient, never()).makeBucket(any(MakeBucketArgs.class));
 
         // 2. Capture the arguments passed to putObject to inspect them.
@@ -72,19 +104,246 @@ class MinioStorageServiceTest {
     }
 
     @Test
-    void upload_ShouldCreateBucket_WhenBucketDoesNotExist() throws Exception {
+    void upload_ShouldCreateBucketAndRetry_WhenBucketIsMissing() throws Exception {
         // Given
-        // Simulate that the bucket does NOT exist initially
+        // The first PUT finds no bucket; the retry after creating it succeeds
+        when(minioClient.putObject(any(PutObjectArgs.class)))
+                .thenThrow(errorResponse("NoSuchBucket"))
+                .thenReturn(null);
         when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(false);
 
         // When
-        minioStorageService.upload("letters", mockFile);
+        String objectName = minioStorageService.upload("letters", mockFile);
 
         // Then
-        // Verify that we checked for the bucket AND tried to create it.
-        verify(minioClient, times(1)).bucketExists(any(BucketExistsArgs.class));
+        assertTrue(objectName.startsWith("letters/"));
         verify(minioClient, times(1)).makeBucket(any(MakeBucketArgs.class));
+        verify(minioClient, times(2)).putObject(any(PutObjectArgs.class));
+        assertTrue(minioStorageService.isBucketReady());
+    }
+
+    @Test
+    void upload_ShouldNotRetry_WhenErrorIsNotAMissingBucket() throws Exception {
+        // Given
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenThrow(errorResponse("AccessDenied"));
+
+        // When
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> minioStorageService.upload("letters", mockFile));
+
+        // Then
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getStatusCode());
         verify(minioClient, times(1)).putObject(any(PutObjectArgs.class));
+        verify(minioClient, never()).bucketExists(any(BucketExistsArgs.class));
+    }
+
+    @Test
+    void ensureBucket_ShouldCreateBucket_WhenBucketDoesNotExist() throws Exception {
+        // Given
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(false);
+
+        // When
+        minioStorageService.ensureBucket();
+
+        // Then
+        verify(minioClient, times(1)).makeBucket(any(MakeBucketArgs.class));
+        assertTrue(minioStorageService.isBucketReady());
+    }
+
+    @Test
+    void initBucket_ShouldLeaveBucketNotReady_WhenStorageIsUnreachable() throws Exception {
+        // Given
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenThrow(new IOException("Connection refused"));
+
+        // When
+        minioStorageService.initBucket();
+
+        // Then
+        assertFalse(minioStorageService.isBucketReady());
+    }
+
+    @Test
+    void uploadAll_ShouldReturnContentAddressedNamesInFileOrder() throws Exception {
+        // Given
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("file", "first.pdf", "application/pdf", "1".getBytes()),
+                new MockMultipartFile("file", "second.pdf", "application/pdf", "2".getBytes()),
+                new MockMultipartFile("file", "third.pdf", "application/pdf", "3".getBytes())
+        );
+
+        // When
+        List<String> objectNames = minioStorageService.uploadAll(files);
+
+        // Then
+        assertEquals(List.of(contentName("1"), contentName("2"), contentName("3")), objectNames);
+        verify(minioClient, times(3)).putObject(any(PutObjectArgs.class));
+        verify(contentObjectRepository).insertOrAddReferences(sha256("2"), contentName("2"), 1L, 1);
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
+    }
+
+    @Test
+    void uploadAll_ShouldStoreRepeatedContentOnce() throws Exception {
+        // Given
+        // The annex is already stored; the same new file is attached twice
+        String annexHash = sha256("annex");
+        when(contentObjectRepository.addReferences(anyString(), anyInt()))
+                .thenAnswer(invocation -> annexHash.equals(invocation.getArgument(0)) ? 1 : 0);
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("file", "annex.pdf", "application/pdf", "annex".getBytes()),
+                new MockMultipartFile("file", "copy-1.pdf", "application/pdf", "copy".getBytes()),
+                new MockMultipartFile("file", "copy-2.pdf", "application/pdf", "copy".getBytes())
+        );
+
+        // When
+        List<String> objectNames = minioStorageService.uploadAll(files);
+
+        // Then
+        assertEquals(List.of(contentName("annex"), contentName("copy"), contentName("copy")), objectNames);
+        ArgumentCaptor<PutObjectArgs> putObjectArgsCaptor = ArgumentCaptor.forClass(PutObjectArgs.class);
+        verify(minioClient, times(1)).putObject(putObjectArgsCaptor.capture());
+        assertEquals(contentName("copy"), putObjectArgsCaptor.getValue().object());
+        verify(contentObjectRepository).insertOrAddReferences(sha256("copy"), contentName("copy"), 4L, 2);
+        verify(contentObjectRepository, never())
+                .insertOrAddReferences(eq(sha256("annex")), anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void uploadAll_ShouldQueueUploadedObjectsOnRollback_InsteadOfRemovingThem_WhenAnyUploadFails() throws Exception {
+        // Given
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+            PutObjectArgs args = invocation.getArgument(0);
+            if (args.object().equals(contentName("broken"))) {
+                throw new IOException("Connection reset");
+            }
+            return null;
+        });
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("file", "first.pdf", "application/pdf", "first".getBytes()),
+                new MockMultipartFile("file", "broken.pdf", "application/pdf", "broken".getBytes()),
+                new MockMultipartFile("file", "third.pdf", "application/pdf", "third".getBytes())
+        );
+
+        // When
+        List<TransactionSynchronization> synchronizations = new ArrayList<>();
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> inTransaction(() -> minioStorageService.uploadAll(files), synchronizations));
+        Instant rolledBackAt = Instant.now();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getStatusCode());
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
+        verify(contentObjectRepository, never()).insertOrAddReferences(anyString(), anyString(), anyLong(), anyInt());
+        ArgumentCaptor<List<ObjectDeletion>> queued = ArgumentCaptor.captor();
+        verify(objectDeletionRepository).saveAll(queued.capture());
+        assertEquals(Set.of(contentName("first"), contentName("broken"), contentName("third")),
+                queued.getValue().stream().map(ObjectDeletion::getObjectName).collect(Collectors.toSet()));
+        // The worker waits out the grace period before checking the reference counts
+        assertFalse(queued.getValue().get(0).getNextAttemptAt().isBefore(rolledBackAt.plus(Duration.ofHours(24))));
+    }
+
+    @Test
+    void uploadAll_ShouldLeaveSharedContentInStorage_WhenConcurrentUploadOfSameContentFails() throws Exception {
+        // Given
+        // Both requests find the content missing and PUT it at the same time; the second also
+        // uploads a file that fails
+        CyclicBarrier bothUploading = new CyclicBarrier(2);
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+            PutObjectArgs args = invocation.getArgument(0);
+            if (args.object().equals(contentName("shared"))) {
+                bothUploading.await(5, TimeUnit.SECONDS);
+            } else if (args.object().equals(contentName("broken"))) {
+                throw new IOException("Connection reset");
+            }
+            return null;
+        });
+        MultipartFile shared = new MockMultipartFile("file", "shared.pdf", "application/pdf", "shared".getBytes());
+        MultipartFile broken = new MockMultipartFile("file", "broken.pdf", "application/pdf", "broken".getBytes());
+
+        // When
+        List<String> succeeded;
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<List<String>> first = executor.submit(() -> minioStorageService.uploadAll(List.of(shared)));
+            Future<List<String>> second = executor.submit(() -> minioStorageService.uploadAll(List.of(shared, broken)));
+            succeeded = first.get(10, TimeUnit.SECONDS);
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(ResponseStatusException.class, failure.getCause());
+        }
+
+        // Then
+        // The failed request must not delete the object the other one is about to reference
+        assertEquals(List.of(contentName("shared")), succeeded);
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
+        verify(minioClient, never()).removeObjects(any(RemoveObjectsArgs.class));
+        verify(contentObjectRepository).insertOrAddReferences(sha256("shared"), contentName("shared"), 6L, 1);
+    }
+
+    @Test
+    void adoptUpload_ShouldCopyUnchangedUploadToContentName_AndQueueUploadForDeletion() throws Exception {
+        // Given
+        ContentDigest digest = new ContentDigest(sha256("annex"), "annex".getBytes());
+
+        // When
+        String objectName = minioStorageService.adoptUpload("uploads/annex-1.pdf", "etag-1", digest, 5L);
+
+        // Then
+        assertEquals(contentName("annex"), objectName);
+        ArgumentCaptor<CopyObjectArgs> copied = ArgumentCaptor.forClass(CopyObjectArgs.class);
+        verify(minioClient).copyObject(copied.capture());
+        assertEquals(contentName("annex"), copied.getValue().object());
+        assertEquals("uploads/annex-1.pdf", copied.getValue().source().object());
+        // Only the bytes that were hashed and sniffed are copied
+        assertEquals("etag-1", copied.getValue().source().matchETag());
+        verify(contentObjectRepository).insertOrAddReferences(sha256("annex"), contentName("annex"), 5L, 1);
+        ArgumentCaptor<ObjectDeletion> queued = ArgumentCaptor.forClass(ObjectDeletion.class);
+        verify(objectDeletionRepository).save(queued.capture());
+        assertEquals("uploads/annex-1.pdf", queued.getValue().getObjectName());
+    }
+
+    @Test
+    void adoptUpload_ShouldOnlyAddReference_WhenContentIsAlreadyStored() throws Exception {
+        // Given
+        when(contentObjectRepository.addReferences(sha256("annex"), 1)).thenReturn(1);
+
+        // When
+        String objectName = minioStorageService.adoptUpload(
+                "uploads/annex-1.pdf", "etag-1", new ContentDigest(sha256("annex"), new byte[0]), 5L);
+
+        // Then
+        assertEquals(contentName("annex"), objectName);
+        verify(minioClient, never()).copyObject(any(CopyObjectArgs.class));
+        verify(objectDeletionRepository).save(any(ObjectDeletion.class));
+    }
+
+    @Test
+    void adoptUpload_ShouldReturnConflict_WhenUploadChangedSinceItWasChecked() throws Exception {
+        // Given
+        when(minioClient.copyObject(any(CopyObjectArgs.class))).thenThrow(errorResponse("PreconditionFailed"));
+
+        // When
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> minioStorageService.adoptUpload(
+                        "uploads/annex-1.pdf", "etag-1", new ContentDigest(sha256("annex"), new byte[0]), 5L));
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verify(contentObjectRepository, never()).insertOrAddReferences(anyString(), anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void release_ShouldDropReferencesAndQueueDeletions() throws Exception {
+        // When
+        minioStorageService.release(List.of(contentName("annex"), "uploads/2025/10/21/direct-uuid.pdf"));
+
+        // Then
+        // Nothing is removed from storage until the worker confirms the objects are unreferenced
+        verify(contentObjectRepository).removeReference(contentName("annex"));
+        verify(contentObjectRepository).removeReference("uploads/2025/10/21/direct-uuid.pdf");
+        ArgumentCaptor<List<ObjectDeletion>> queued = ArgumentCaptor.captor();
+        verify(objectDeletionRepository).saveAll(queued.capture());
+        assertEquals(List.of(contentName("annex"), "uploads/2025/10/21/direct-uuid.pdf"),
+                queued.getValue().stream().map(ObjectDeletion::getObjectName).toList());
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
     }
 
     @Test
@@ -120,4 +379,33 @@ class MinioStorageServiceTest {
         assertEquals("test-bucket", capturedArgs.bucket());
         assertEquals(objectName, capturedArgs.object());
     }
-}
\ No newline at end of file
+
+    /** Runs the call with transaction synchronization active and hands back what it registered. */
+    private static <T> T inTransaction(Callable<T> call, List<TransactionSynchronization> registered)
+            throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            return call.call();
+        } finally {
+            registered.addAll(TransactionSynchronizationManager.getSynchronizations());
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static ErrorResponseException errorResponse(String code) {
+        return new ErrorResponseException(
+                new ErrorResponse(code, code, "test-bucket", null, "/test-bucket", "request-id", "host-id"),
+                null,
+                null);
+    }
+
+    private static String sha256(String content) throws Exception {
+        return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(content.getBytes()));
+    }
+
+    private static String contentName(String content) throws Exception {
+        String hash = sha256(content);
+        return "content/" + hash.substring(0, 2) + "/" + hash;
+    }
+}
@@ -0,0 +1,227 @@
+package lk.gov.mohe.adminsystem.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.minio.BucketExistsArgs;
+import io.minio.MinioClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link MinioStorageService} against an in-process stand-in for MinIO that answers the few S3
+ * calls an upload makes, optionally after a simulated network round-trip.
+ *
+ * <p>The benchmark is skipped by default; run it with {@code STORAGE_BENCHMARK=true ./gradlew test
+ * --tests '*MinioUploadBenchmarkTest'}.
+ */
+class MinioUploadBenchmarkTest {
+
+    private static final String BUCKET = "test-bucket";
+
+    private StandInServer standIn;
+    private MinioClient minioClient;
+    private MinioStorageService storageService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        standIn = new StandInServer();
+        minioClient = MinioClient.builder()
+                .endpoint("http://localhost:" + standIn.port())
+                .region("us-east-1")
+                .credentials("access-key", "secret-key")
+                .build();
+        storageService = new MinioStorageService(minioClient, null, null, null);
+        ReflectionTestUtils.setField(storageService, "bucket", BUCKET);
+        storageService.setUploadConcurrency(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        standIn.stop();
+    }
+
+    @Test
+    void upload_ShouldMakeOneRequestPerFile_OnceBucketIsVerified() {
+        // Given
+        storageService.initBucket();
+        assertTrue(storageService.isBucketReady());
+        standIn.resetCounts();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            storageService.upload("letters", file(i));
+        }
+
+        // Then
+        assertEquals(10, standIn.count("PUT"));
+        assertEquals(0, standIn.count("HEAD"));
+    }
+
+    @Test
+    void upload_ShouldRecreateBucketAndRetry_WhenBucketWasRemoved() {
+        // Given
+        storageService.initBucket();
+        standIn.removeBucket();
+
+        // When
+        String objectName = storageService.upload("letters", file(0));
+
+        // Then
+        assertTrue(objectName.startsWith("letters/"));
+        assertTrue(standIn.hasBucket());
+        assertEquals(1, standIn.storedObjects());
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "STORAGE_BENCHMARK", matches = "true")
+    void benchmarkUploadLatency() throws Exception {
+        int warmup = 20;
+        int iterations = 200;
+        standIn.setLatencyMillis(2);
+        storageService.initBucket();
+
+        // The previous behaviour: a bucketExists round-trip before every upload
+        for (int i = 0; i < warmup; i++) {
+            checkBucketThenUpload(i);
+            storageService.upload("letters", file(i));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            checkBucketThenUpload(i);
+        }
+        double withCheck = (System.nanoTime() - start) / 1e6 / iterations;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            storageService.upload("letters", file(i));
+        }
+        double withoutCheck = (System.nanoTime() - start) / 1e6 / iterations;
+
+        System.out.printf(
+                "Upload latency over %d files with %d ms simulated RTT: "
+                        + "bucketExists per upload %.2f ms, verified at startup %.2f ms%n",
+                iterations, standIn.latencyMillis(), withCheck, withoutCheck);
+        assertTrue(withoutCheck < withCheck);
+    }
+
+    private void checkBucketThenUpload(int i) throws Exception {
+        minioClient.bucketExists(BucketExistsArgs.builder().bucket(BUCKET).build());
+        storageService.upload("letters", file(i));
+    }
+
+    private static MockMultipartFile file(int i) {
+        return new MockMultipartFile(
+                "file", "file-" + i + ".pdf", "application/pdf", ("content " + i).getBytes());
+    }
+
+    /** Serves HEAD/PUT bucket and PUT object, which is all an upload needs. */
+    private static class StandInServer {
+        private final HttpServer server;
+        private final AtomicBoolean bucketExists = new AtomicBoolean();
+        private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        private final Map<String, Boolean> objects = new ConcurrentHashMap<>();
+        private volatile int latencyMillis;
+
+        StandInServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        int port() {
+            return server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        int latencyMillis() {
+            return latencyMillis;
+        }
+
+        void setLatencyMillis(int latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        void resetCounts() {
+            counts.clear();
+        }
+
+        int count(String method) {
+            AtomicInteger count = counts.get(method);
+            return count == null ? 0 : count.get();
+        }
+
+        void removeBucket() {
+            bucketExists.set(false);
+            objects.clear();
+        }
+
+        boolean hasBucket() {
+            return bucketExists.get();
+        }
+
+        int storedObjects() {
+            return objects.size();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            try (exchange; InputStream body = exchange.getRequestBody()) {
+                body.readAllBytes();
+                counts.computeIfAbsent(exchange.getRequestMethod(), m -> new AtomicInteger()).incrementAndGet();
+                if (latencyMillis > 0) {
+                    Thread.sleep(latencyMillis);
+                }
+
+                String path = exchange.getRequestURI().getPath();
+                boolean isObject = path.indexOf('/', 1) > 0;
+                switch (exchange.getRequestMethod()) {
+                    case "HEAD" -> exchange.sendResponseHeaders(bucketExists.get() ? 200 : 404, -1);
+                    case "PUT" -> {
+                        if (!isObject) {
+                            bucketExists.set(true);
+                            exchange.sendResponseHeaders(200, -1);
+                        } else if (!bucketExists.get()) {
+                            sendError(exchange, "NoSuchBucket", path);
+                        } else {
+                            objects.put(path, true);
+                            exchange.getResponseHeaders().add("ETag", "\"" + Integer.toHexString(path.hashCode()) + "\"");
+                            exchange.sendResponseHeaders(200, -1);
+                        }
+                    }
+                    default -> exchange.sendResponseHeaders(405, -1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private static void sendError(HttpExchange exchange, String code, String resource) throws IOException {
+            byte[] xml = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>" + code
+                    + "</Code><Message>" + code + "</Message><BucketName>" + BUCKET
+                    + "</BucketName><Resource>" + resource
+                    + "</Resource><RequestId>stand-in</RequestId><HostId>stand-in</HostId></Error>")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/xml");
+            exchange.sendResponseHeaders(404, xml.length);
+            exchange.getResponseBody().write(xml);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package lk.gov.mohe.adminsystem.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ObjectDeletionWorkerTest {
+
+    @Mock
+    private ObjectDeletionRepository objectDeletionRepository;
+    @Mock
+    private ContentObjectRepository contentObjectRepository;
+    @Mock
+    private MinioStorageService storageService;
+
+    @InjectMocks
+    private ObjectDeletionWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(worker, "batchSize", 100);
+        ReflectionTestUtils.setField(worker, "retryDelay", Duration.ofSeconds(30));
+    }
+
+    @Test
+    void processBatch_ShouldRemoveUnreferencedObjectsInOneRequest() {
+        // Given
+        ObjectDeletion direct = deletion("uploads/direct.pdf");
+        ObjectDeletion content = deletion("content/ab/abc");
+        ContentObject unreferenced = contentObject("content/ab/abc", 0);
+        when(objectDeletionRepository.findDueForUpdate(any(Instant.class), eq(100)))
+                .thenReturn(new ArrayList<>(List.of(direct, content)));
+        when(contentObjectRepository.findByObjectName("uploads/direct.pdf")).thenReturn(Optional.empty());
+        when(contentObjectRepository.findByObjectName("content/ab/abc")).thenReturn(Optional.of(unreferenced));
+        when(storageService.removeObjects(List.of("content/ab/abc", "uploads/direct.pdf"))).thenReturn(Map.of());
+
+        // When
+        int processed = worker.processBatch();
+
+        // Then
+        assertEquals(2, processed);
+        verify(contentObjectRepository).deleteAll(List.of(unreferenced));
+        verify(objectDeletionRepository).deleteAll(List.of(content, direct));
+    }
+
+    @Test
+    void processBatch_ShouldSkipObjects_ThatAreReferencedAgain() {
+        // Given
+        // Another upload of the same content took a reference after the deletion was queued
+        ObjectDeletion deletion = deletion("content/ab/abc");
+        when(objectDeletionRepository.findDueForUpdate(any(Instant.class), eq(100)))
+                .thenReturn(new ArrayList<>(List.of(deletion)));
+        when(contentObjectRepository.findByObjectName("content/ab/abc"))
+                .thenReturn(Optional.of(contentObject("content/ab/abc", 1)));
+
+        // When
+        worker.processBatch();
+
+        // Then
+        verifyNoInteractions(storageService);
+        verify(objectDeletionRepository).deleteAll(List.of(deletion));
+    }
+
+    @Test
+    void processBatch_ShouldBackOff_WhenRemovalFails() {
+        // Given
+        ObjectDeletion deletion = deletion("uploads/direct.pdf");
+        deletion.setAttempts(2);
+        when(objectDeletionRepository.findDueForUpdate(any(Instant.class), eq(100)))
+                .thenReturn(new ArrayList<>(List.of(deletion)));
+        when(contentObjectRepository.findByObjectName("uploads/direct.pdf")).thenReturn(Optional.empty());
+        when(storageService.removeObjects(List.of("uploads/direct.pdf")))
+                .thenReturn(Map.of("uploads/direct.pdf", "SlowDown: Please reduce your request rate"));
+
+        // When
+        Instant before = Instant.now();
+        worker.processBatch();
+
+        // Then
+        // Third failure: 30s doubled twice
+        assertEquals(3, deletion.getAttempts());
+        assertEquals("SlowDown: Please reduce your request rate", deletion.getLastError());
+        assertFalse(deletion.getNextAttemptAt().isBefore(before.plusSeconds(120)));
+        verify(objectDeletionRepository).deleteAll(List.of());
+    }
+
+    private static ObjectDeletion deletion(String objectName) {
+        ObjectDeletion deletion = new ObjectDeletion(objectName);
+        deletion.setNextAttemptAt(Instant.now());
+        return deletion;
+    }
+
+    private static ContentObject contentObject(String objectName, int referenceCount) {
+        ContentObject content = new ContentObject();
+        content.setObjectName(objectName);
+        content.setReferenceCount(referenceCount);
+        return content;
+    }
+}
@@ -0,0 +1,74 @@
+package lk.gov.mohe.adminsystem.storage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PresignedUrlCacheTest {
+
+    @Mock
+    private MinioStorageService storageService;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void getFileUrl_ShouldSignOnce_AndServeRepeatsFromCache() {
+        PresignedUrlCache cache = new PresignedUrlCache(storageService, meterRegistry, 86400, 3600, 100);
+        when(storageService.getFileUrl("letters/a.pdf", 86400)).thenReturn("https://minio/a?sig=1");
+
+        assertEquals("https://minio/a?sig=1", cache.getFileUrl("letters/a.pdf"));
+        assertEquals("https://minio/a?sig=1", cache.getFileUrl("letters/a.pdf"));
+
+        verify(storageService, times(1)).getFileUrl("letters/a.pdf", 86400);
+        assertEquals(1.0, cacheCount("hit"));
+        assertEquals(1.0, cacheCount("miss"));
+    }
+
+    @Test
+    void getFileUrl_ShouldResign_WhenCachedUrlIsWithinRefreshMargin() {
+        // A margin as long as the validity makes every cached URL due for refresh
+        PresignedUrlCache cache = new PresignedUrlCache(storageService, meterRegistry, 60, 60, 100);
+        when(storageService.getFileUrl("letters/a.pdf", 60))
+                .thenReturn("https://minio/a?sig=1")
+                .thenReturn("https://minio/a?sig=2");
+
+        cache.getFileUrl("letters/a.pdf");
+
+        assertEquals("https://minio/a?sig=2", cache.getFileUrl("letters/a.pdf"));
+        assertEquals(2.0, cacheCount("miss"));
+    }
+
+    @Test
+    void getFileUrl_ShouldEvictLeastRecentlyUsed_WhenFull() {
+        PresignedUrlCache cache = new PresignedUrlCache(storageService, meterRegistry, 86400, 3600, 2);
+        when(storageService.getFileUrl(anyString(), eq(86400))).thenAnswer(inv -> "url:" + inv.getArgument(0));
+
+        cache.getFileUrl("a");
+        cache.getFileUrl("b");
+        cache.getFileUrl("a");
+        cache.getFileUrl("c");
+        cache.getFileUrl("a");
+        cache.getFileUrl("b");
+
+        verify(storageService, times(1)).getFileUrl("a", 86400);
+        verify(storageService, times(2)).getFileUrl("b", 86400);
+        assertEquals(2.0, meterRegistry.get("storage.presigned_urls.cache.size").gauge().value());
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry.get("storage.presigned_urls.cache").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,67 @@
+package lk.gov.mohe.adminsystem.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedLookupTest {
+
+    private final AtomicInteger source = new AtomicInteger();
+    private final AtomicInteger loads = new AtomicInteger();
+    private CachedLookup<Integer> lookup;
+
+    @BeforeEach
+    void setUp() {
+        lookup = new CachedLookup<>() {
+            @Override
+            protected Integer load() {
+                loads.incrementAndGet();
+                return source.get();
+            }
+        };
+    }
+
+    @Test
+    void get_ShouldKeepLoadedValue_UntilEvicted() {
+        // When
+        lookup.get();
+        lookup.get();
+        lookup.evict();
+        lookup.get();
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotKeepStaleValue_WhenEvictRunsWhileLoading() {
+        // Given
+        AtomicBoolean changed = new AtomicBoolean();
+        lookup = new CachedLookup<>() {
+            @Override
+            protected Integer load() {
+                int loaded = source.get();
+                if (changed.compareAndSet(false, true)) {
+                    CompletableFuture.runAsync(() -> {
+                        source.incrementAndGet();
+                        evict();
+                    }).join();
+                }
+                return loaded;
+            }
+        };
+
+        // When
+        int loaded = lookup.get();
+        int next = lookup.get();
+
+        // Then
+        assertEquals(0, loaded);
+        assertEquals(1, next);
+    }
+}
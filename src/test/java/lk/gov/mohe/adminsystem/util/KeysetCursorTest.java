@@ -0,0 +1,54 @@
+package lk.gov.mohe.adminsystem.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    private final KeysetCursor<Instant> cursor = new KeysetCursor<>("createdAt", Instant::parse);
+
+    @Test
+    void next_ShouldRoundTripKeysOfLastRow() {
+        // Given
+        // An Instant contains the separator, which must not split the key
+        Instant createdAt = Instant.parse("2025-03-01T10:15:30Z");
+        Window<String> window = Window.from(List.of("first", "last"),
+                index -> ScrollPosition.forward(Map.of("createdAt", createdAt.plusSeconds(index), "id", 40 + index)),
+                true);
+
+        // When
+        KeysetScrollPosition position = (KeysetScrollPosition) cursor.decode(cursor.next(window));
+
+        // Then
+        assertEquals(Map.of("createdAt", createdAt.plusSeconds(1), "id", 41), position.getKeys());
+    }
+
+    @Test
+    void next_ShouldReturnNull_OnLastWindow() {
+        Window<String> window = Window.from(List.of("only"),
+                index -> ScrollPosition.forward(Map.of("createdAt", Instant.EPOCH, "id", 1)), false);
+
+        assertNull(cursor.next(window));
+    }
+
+    @Test
+    void decode_ShouldRejectMalformedCursor() {
+        KeysetCursor<LocalDate> dateCursor = new KeysetCursor<>("receivedDate", LocalDate::parse);
+
+        for (String token : List.of("not base64!", "bm8tc2VwYXJhdG9y", "MjAyNS0xMy0wMTox")) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> dateCursor.decode(token));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package lk.gov.mohe.adminsystem.util;
+
+import lk.gov.mohe.adminsystem.division.Division;
+import lk.gov.mohe.adminsystem.division.DivisionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PagingUtilTest {
+
+    @Mock
+    private DivisionRepository divisionRepository;
+
+    private final Specification<Division> nameFilter =
+            (root, query, cb) -> cb.like(root.get("name"), "IT%");
+
+    @Test
+    void findAll_ShouldReturnSliceWithoutTotal_ForFilteredListInEstimateMode() {
+        // Given
+        Pageable pageable = PageRequest.of(2, 2);
+        Slice<Division> slice = new SliceImpl<>(List.of(new Division(), new Division()), pageable, true);
+        when(divisionRepository.findBy(any(Specification.class), any())).thenReturn(slice);
+
+        // When
+        Slice<Division> result = PagingUtil.findAll(
+                divisionRepository, nameFilter, pageable, CountMode.ESTIMATE, () -> 1000L);
+
+        // Then
+        // No total is made up for a list the planner cannot estimate
+        assertFalse(result instanceof Page);
+        assertTrue(result.hasNext());
+        verify(divisionRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        verify(divisionRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void findAll_ShouldReportExactTotal_OnLastUnfilteredPageInEstimateMode() {
+        // Given
+        Pageable pageable = PageRequest.of(1, 2);
+        when(divisionRepository.findBy(any(Specification.class), any()))
+                .thenReturn(new SliceImpl<>(List.of(new Division()), pageable, false));
+
+        // When
+        Slice<Division> result = PagingUtil.findAll(
+                divisionRepository, null, pageable, CountMode.ESTIMATE, () -> 1000L);
+
+        // Then
+        assertEquals(3, ((Page<Division>) result).getTotalElements());
+        verify(divisionRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void findAll_ShouldUsePlannerEstimate_ForUnfilteredListInEstimateMode() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 2);
+        when(divisionRepository.findBy(any(Specification.class), any()))
+                .thenReturn(new SliceImpl<>(List.of(new Division(), new Division()), pageable, true));
+
+        // When
+        Slice<Division> result = PagingUtil.findAll(
+                divisionRepository, null, pageable, CountMode.ESTIMATE, () -> 1000L);
+
+        // Then
+        assertEquals(1000, ((Page<Division>) result).getTotalElements());
+        verify(divisionRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void clampPageSize_ShouldKeepPageSizeWithinBounds() {
+        assertEquals(1, PagingUtil.clampPageSize(0));
+        assertEquals(20, PagingUtil.clampPageSize(20));
+        assertEquals(PagingUtil.MAX_PAGE_SIZE, PagingUtil.clampPageSize(1_000_000));
+    }
+}
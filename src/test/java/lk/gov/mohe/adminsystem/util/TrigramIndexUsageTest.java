@@ -0,0 +1,124 @@
+package lk.gov.mohe.adminsystem.util;
+
+import lk.gov.mohe.adminsystem.TestcontainersConfiguration;
+import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperRepository;
+import lk.gov.mohe.adminsystem.cabinetpaper.CabinetPaperSpecs;
+import lk.gov.mohe.adminsystem.letter.LetterRepository;
+import lk.gov.mohe.adminsystem.letter.LetterSpecs;
+import lk.gov.mohe.adminsystem.user.UserRepository;
+import lk.gov.mohe.adminsystem.user.UserSpecs;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the "contains" specs, captures the SQL Hibernate generates for them and checks with EXPLAIN
+ * that PostgreSQL can answer them from the trigram indexes added in V9.
+ */
+@DataJpaTest(properties = {
+        "spring.config.on-not-found=ignore",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "lk.gov.mohe.adminsystem.util.TrigramIndexUsageTest$LastSelectInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class TrigramIndexUsageTest {
+
+    @Autowired
+    private LetterRepository letterRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CabinetPaperRepository cabinetPaperRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void hasSenderContaining_ShouldUseSenderTrigramIndex() throws SQLException {
+        letterRepository.findAll(LetterSpecs.hasSenderContaining("ministry"));
+
+        assertTrue(explainLastSelect("%ministry%").contains("idx_letters_sender_search_trgm"));
+    }
+
+    @Test
+    void hasReceiverContaining_ShouldUseReceiverTrigramIndex() throws SQLException {
+        letterRepository.findAll(LetterSpecs.hasReceiverContaining("director"));
+
+        assertTrue(explainLastSelect("%director%").contains("idx_letters_receiver_search_trgm"));
+    }
+
+    @Test
+    void userMatchesQuery_ShouldUseUserTrigramIndexes() throws SQLException {
+        userRepository.findAll(UserSpecs.matchesQuery("perera"));
+
+        String plan = explainLastSelect("%perera%");
+        assertTrue(plan.contains("idx_users_username_trgm"));
+        assertTrue(plan.contains("idx_users_full_name_trgm"));
+    }
+
+    @Test
+    void cabinetPaperMatchesQuery_ShouldUseCabinetPaperTrigramIndexes() throws SQLException {
+        cabinetPaperRepository.findAll(CabinetPaperSpecs.matchesQuery("budget"));
+
+        String plan = explainLastSelect("%budget%");
+        assertTrue(plan.contains("idx_cabinet_papers_subject_trgm"));
+        assertTrue(plan.contains("idx_cabinet_papers_summary_trgm"));
+    }
+
+    // Every bind parameter of these queries is the LIKE pattern
+    private String explainLastSelect(String pattern) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            // SET LOCAL ends with the transaction, so the setting does not stay on the pooled connection
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    // The test tables are nearly empty, so keep the planner from preferring a seq scan
+                    statement.execute("SET LOCAL enable_seqscan = off");
+                }
+                try (PreparedStatement explain =
+                             connection.prepareStatement("EXPLAIN " + LastSelectInspector.lastSelect)) {
+                    int parameters = explain.getParameterMetaData().getParameterCount();
+                    for (int i = 1; i <= parameters; i++) {
+                        explain.setString(i, pattern);
+                    }
+                    StringBuilder plan = new StringBuilder();
+                    try (ResultSet rows = explain.executeQuery()) {
+                        while (rows.next()) {
+                            plan.append(rows.getString(1)).append('\n');
+                        }
+                    }
+                    return plan.toString();
+                }
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    public static class LastSelectInspector implements StatementInspector {
+        static volatile String lastSelect;
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.stripLeading().toLowerCase().startsWith("select")) {
+                lastSelect = sql;
+            }
+            return sql;
+        }
+    }
+}